@@ -0,0 +1,285 @@
+/*
+ * File: BatchBillingPipeline.java
+ * Package: com.smartpark
+ * Purpose: Nightly billing of completed account stays - grouped by customer, priced in
+ *          parallel and written in bulk
+ * Requirements: #1 (Nested classes), #9 (Method overloading)
+ */
+
+package com.smartpark;
+
+import com.smartpark.io.DataStore;
+import com.smartpark.utils.Logger;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Bills every COMPLETED booking that has no payment yet, such as stays checked
+ * out on account through ParkingService.checkOutOnAccount. One run goes through
+ * four stages:
+ *   1. read the completed bookings a page at a time, in booking ID order, so the
+ *      whole history is never copied at once; each page starts after the last
+ *      booking ID of the one before
+ *   2. keep the page's stays that ended before the cutoff and are unbilled, and
+ *      group them by customer, in customer ID order
+ *   3. price them all with the tariff on a ForkJoinPool; the bookings are laid out
+ *      customer by customer in one array and split into ranges, so one account
+ *      with thousands of stays is still shared out between workers
+ *   4. for each customer, write the payments to the DataStore journal as one batch,
+ *      then add them to the repository
+ * A customer whose stays fall on several pages gets one batch per page.
+ * Payments are PENDING: they are owed by the account, not yet settled.
+ *
+ * A run can be restarted after a crash without charging anyone twice. A booking
+ * with any payment in the repository is skipped, however it was paid, and the
+ * payment ID for a new charge is derived from the booking ID, the same ID
+ * check-out uses.
+ * Each customer's batch goes to the journal before the repository, so the
+ * journal works as the checkpoint. Reloading it after a crash brings back every
+ * batch that was written, and the next run bills only the rest. A batch cut off
+ * half way leaves a prefix of its payments; the missing ones are billed on
+ * restart. Replaying a payment record twice replaces it by ID, so it never
+ * adds a second charge. If the journal cannot be written, the run stops before
+ * that batch reaches the repository; its Summary reports it as incomplete, and
+ * the next run bills the rest.
+ */
+public class BatchBillingPipeline {
+    private static final int SCAN_PAGE = 16_384;        // completed bookings read per page
+    private static final int PRICING_THRESHOLD = 1024;  // bookings priced by one fork/join leaf
+
+    private final BookingRepository bookingRepository;
+    private final ParkingLot parkingLot;
+    private final TariffEngine tariff;
+    private final DataStore dataStore;  // null to skip journaling
+    private final Logger logger;
+    private final ForkJoinPool pool;
+
+    /**
+     * REQUIREMENT #1: Static nested class - the outcome of one run.
+     * Throughput counts the bookings billed per second of the whole run.
+     */
+    public static final class Summary {
+        private final int customers;
+        private final int bookingsBilled;
+        private final int alreadyBilled;
+        private final long amountPaise;
+        private final long elapsedNanos;
+        private final boolean complete;
+
+        Summary(int customers, int bookingsBilled, int alreadyBilled, long amountPaise, long elapsedNanos,
+                boolean complete) {
+            this.customers = customers;
+            this.bookingsBilled = bookingsBilled;
+            this.alreadyBilled = alreadyBilled;
+            this.amountPaise = amountPaise;
+            this.elapsedNanos = elapsedNanos;
+            this.complete = complete;
+        }
+
+        public int getCustomers() {
+            return customers;
+        }
+
+        public int getBookingsBilled() {
+            return bookingsBilled;
+        }
+
+        // Completed bookings in the window that already had a payment, from check-out or an earlier run
+        public int getAlreadyBilled() {
+            return alreadyBilled;
+        }
+
+        public double getAmount() {
+            return amountPaise / 100.0;
+        }
+
+        public double getElapsedMillis() {
+            return elapsedNanos / 1_000_000.0;
+        }
+
+        public double getThroughput() {
+            return elapsedNanos == 0 ? 0.0 : bookingsBilled * 1e9 / elapsedNanos;
+        }
+
+        // False if the run stopped early because the journal could not be written
+        public boolean isComplete() {
+            return complete;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Billed %,d booking(s) for %,d customer(s), Rs. %.2f; %,d already billed; "
+                            + "%.1f ms (%,.0f bookings/s)%s",
+                    bookingsBilled, customers, getAmount(), alreadyBilled, getElapsedMillis(), getThroughput(),
+                    complete ? "" : "; stopped early: journal write failed");
+        }
+    }
+
+    // REQUIREMENT #1: Static nested class - what one run has recorded so far
+    private static final class Tally {
+        final Set<String> customers = new HashSet<>();
+        int billed;
+        long amountPaise;
+        boolean stopped;  // a journal write failed; nothing after it is billed
+    }
+
+    // REQUIREMENT #1: Static nested class - prices bookings[from, to) into payments[from, to)
+    private static final class PricingTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Booking[] bookings;
+        private final Payment[] payments;
+        private final ParkingLot parkingLot;
+        private final TariffEngine tariff;
+        private final int from;
+        private final int to;
+
+        PricingTask(Booking[] bookings, Payment[] payments, ParkingLot parkingLot, TariffEngine tariff,
+                    int from, int to) {
+            this.bookings = bookings;
+            this.payments = payments;
+            this.parkingLot = parkingLot;
+            this.tariff = tariff;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PRICING_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    Booking booking = bookings[i];
+                    payments[i] = new Payment(ParkingService.paymentIdFor(booking.getBookingId()), booking,
+                            parkingLot.getSlotType(booking.getSlotNumber()), tariff);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new PricingTask(bookings, payments, parkingLot, tariff, from, middle),
+                    new PricingTask(bookings, payments, parkingLot, tariff, middle, to));
+        }
+    }
+
+    // REQUIREMENT #10: Constructor overloading (Case 1 - the common fork/join pool)
+    public BatchBillingPipeline(BookingRepository bookingRepository, ParkingLot parkingLot, TariffEngine tariff,
+                                DataStore dataStore, Logger logger) {
+        this(bookingRepository, parkingLot, tariff, dataStore, logger, ForkJoinPool.commonPool());
+    }
+
+    // REQUIREMENT #10: Constructor overloading (Case 2 - pricing on the given pool)
+    public BatchBillingPipeline(BookingRepository bookingRepository, ParkingLot parkingLot, TariffEngine tariff,
+                                DataStore dataStore, Logger logger, ForkJoinPool pool) {
+        this.bookingRepository = bookingRepository;
+        this.parkingLot = parkingLot;
+        this.tariff = tariff;
+        this.dataStore = dataStore;
+        this.logger = logger;
+        this.pool = pool;
+    }
+
+    // REQUIREMENT #9: Method overloading (Case 1 - bill every stay completed so far)
+    public Summary run() {
+        return run(LocalDateTime.now());
+    }
+
+    // REQUIREMENT #9: Method overloading (Case 2 - bill the stays that ended before the cutoff)
+    public Summary run(LocalDateTime cutoff) {
+        long started = System.nanoTime();
+        Tally tally = new Tally();
+        int alreadyBilled = 0;
+
+        // 1. Completed stays a page at a time, in booking ID order
+        String after = null;
+        List<Booking> page;
+        while (!tally.stopped
+                && !(page = bookingRepository.findByStatus(Booking.Status.COMPLETED, after, SCAN_PAGE)).isEmpty()) {
+            after = page.get(page.size() - 1).getBookingId();
+
+            // 2. The page's unbilled stays, grouped by customer
+            Map<String, List<Booking>> byCustomer = new TreeMap<>();
+            for (Booking booking : page) {
+                if (booking.getCheckOutTime() == null || !booking.getCheckOutTime().isBefore(cutoff)) {
+                    continue;
+                }
+                if (!bookingRepository.findPayments(booking.getBookingId()).isEmpty()) {
+                    alreadyBilled++;
+                    continue;
+                }
+                byCustomer.computeIfAbsent(booking.getCustomerId(), k -> new ArrayList<>()).add(booking);
+            }
+            if (byCustomer.isEmpty()) {
+                continue;
+            }
+            bill(byCustomer, tally);
+        }
+
+        Summary summary = new Summary(tally.customers.size(), tally.billed, alreadyBilled, tally.amountPaise,
+                System.nanoTime() - started, !tally.stopped);
+        if (tally.stopped) {
+            logger.logEvents(Logger.LogLevel.ERROR, "Batch billing stopped: journal write failed", summary.toString());
+        } else {
+            logger.logEvents(Logger.LogLevel.SUCCESS, "Batch billing finished", summary.toString());
+        }
+        return summary;
+    }
+
+    // Stages 3 and 4 for one page, adding what was billed to the tally
+    private void bill(Map<String, List<Booking>> byCustomer, Tally tally) {
+        // 3. Lay the groups out end to end and price them in parallel
+        int total = countBookings(byCustomer);
+        Booking[] bookings = new Booking[total];
+        int[] groupEnds = new int[byCustomer.size()];
+        int filled = 0;
+        int groupIndex = 0;
+        for (List<Booking> group : byCustomer.values()) {
+            for (Booking booking : group) {
+                bookings[filled++] = booking;
+            }
+            groupEnds[groupIndex++] = filled;
+        }
+        Payment[] payments = new Payment[total];
+        pool.invoke(new PricingTask(bookings, payments, parkingLot, tariff, 0, total));
+
+        // 4. One journal batch per customer, then the repository
+        int groupStart = 0;
+        groupIndex = 0;
+        for (String customerId : byCustomer.keySet()) {
+            int groupEnd = groupEnds[groupIndex++];
+            List<Payment> batch = Arrays.asList(payments).subList(groupStart, groupEnd);
+            long customerPaise = 0;
+            for (Payment payment : batch) {
+                customerPaise += Math.round(payment.getAmount() * 100);
+            }
+            if (dataStore != null && !dataStore.appendPayments(batch)) {
+                // Not journaled, so not billed: the next run picks these stays up again
+                tally.stopped = true;
+                return;
+            }
+            bookingRepository.addPayments(batch);
+            tally.customers.add(customerId);
+            tally.billed += batch.size();
+            tally.amountPaise += customerPaise;
+            long billedPaise = customerPaise;
+            logger.log(Logger.LogLevel.INFO, () -> String.format("Billed %d stay(s) to customer %s: Rs. %.2f",
+                    batch.size(), customerId, billedPaise / 100.0));
+            groupStart = groupEnd;
+        }
+    }
+
+    private static int countBookings(Map<String, List<Booking>> byCustomer) {
+        int total = 0;
+        for (List<Booking> group : byCustomer.values()) {
+            total += group.size();
+        }
+        return total;
+    }
+}
@@ -15,13 +15,58 @@ import java.time.format.DateTimeFormatter;
  * Booking class with overloaded constructors and methods.
  */
 public class Booking {
+    // Booking lifecycle; the one-letter code is the compact persisted form. A RESERVED
+    // booking holds a future window: check-in and check-out times are its start and end.
+    public enum Status {
+        RESERVED('R'),
+        ACTIVE('A'),
+        COMPLETED('C'),
+        CANCELLED('X');
+
+        private static final Status[] VALUES = values();
+
+        private final char code;
+
+        Status(char code) {
+            this.code = code;
+        }
+
+        public char getCode() {
+            return code;
+        }
+
+        // Accepts the one-letter code or the name in any case, so older files still load
+        public static Status parse(String value) {
+            if (value != null) {
+                String trimmed = value.trim();
+                for (Status status : VALUES) {
+                    if (trimmed.length() == 1 ? Character.toUpperCase(trimmed.charAt(0)) == status.code
+                            : status.name().equalsIgnoreCase(trimmed)) {
+                        return status;
+                    }
+                }
+            }
+            throw new IllegalArgumentException("Unknown booking status: " + value);
+        }
+
+        public static Status ofCode(char code) {
+            for (Status status : VALUES) {
+                if (status.code == code) {
+                    return status;
+                }
+            }
+            throw new IllegalArgumentException("Unknown booking status code: " + code);
+        }
+    }
+
     private String bookingId;
     private String customerId;
     private int slotNumber;
     private LocalDateTime checkInTime;
     private LocalDateTime checkOutTime;
-    private String status; // ACTIVE, COMPLETED, CANCELLED
+    private Status status;
     private String vehicleNumber;
+    private boolean awaitingArrival;  // booked ahead of arrival; cleared when the vehicle is seen
 
     // REQUIREMENT #10: Constructor overloading (Case 1 - Full constructor)
     public Booking(String bookingId, String customerId, int slotNumber, String vehicleNumber) {
@@ -31,7 +76,7 @@ public class Booking {
         this.vehicleNumber = vehicleNumber;
         this.checkInTime = LocalDateTime.now();
         this.checkOutTime = null;
-        this.status = "ACTIVE";
+        this.status = Status.ACTIVE;
     }
 
     // REQUIREMENT #10: Constructor overloading (Case 2 - Minimal constructor)
@@ -42,7 +87,25 @@ public class Booking {
         this.vehicleNumber = "";
         this.checkInTime = LocalDateTime.now();
         this.checkOutTime = null;
-        this.status = "ACTIVE";
+        this.status = Status.ACTIVE;
+    }
+
+    // REQUIREMENT #10: Constructor overloading (Case 3 - restore a persisted booking; status name or code)
+    public Booking(String bookingId, String customerId, int slotNumber, String vehicleNumber,
+                   LocalDateTime checkInTime, LocalDateTime checkOutTime, String status) {
+        this(bookingId, customerId, slotNumber, vehicleNumber, checkInTime, checkOutTime, Status.parse(status));
+    }
+
+    // REQUIREMENT #10: Constructor overloading (Case 4 - restore a persisted booking)
+    public Booking(String bookingId, String customerId, int slotNumber, String vehicleNumber,
+                   LocalDateTime checkInTime, LocalDateTime checkOutTime, Status status) {
+        this.bookingId = bookingId;
+        this.customerId = customerId;
+        this.slotNumber = slotNumber;
+        this.vehicleNumber = vehicleNumber;
+        this.checkInTime = checkInTime;
+        this.checkOutTime = checkOutTime;
+        this.status = status;
     }
 
     // REQUIREMENT #9: Method overloading (Case 1 - calculateDuration with no parameters)
@@ -103,22 +166,50 @@ public class Booking {
         return checkOutTime;
     }
 
+    // Package-private: BookingRepository indexes bookings by slot and moves them itself
+    void setSlotNumber(int slotNumber) {
+        this.slotNumber = slotNumber;
+    }
+
+    public void setCheckInTime(LocalDateTime checkInTime) {
+        this.checkInTime = checkInTime;
+    }
+
     public void setCheckOutTime(LocalDateTime checkOutTime) {
         this.checkOutTime = checkOutTime;
     }
 
-    public String getStatus() {
+    public Status getStatus() {
         return status;
     }
 
-    public void setStatus(String status) {
+    public void setStatus(Status status) {
         this.status = status;
     }
 
+    // Status by name or code
+    public void setStatus(String status) {
+        this.status = Status.parse(status);
+    }
+
+    public boolean hasStatus(Status status) {
+        return this.status == status;
+    }
+
     public String getVehicleNumber() {
         return vehicleNumber;
     }
 
+    // True for an ACTIVE booking made by a customer whose vehicle has not been seen at the slot yet
+    public boolean isAwaitingArrival() {
+        return awaitingArrival;
+    }
+
+    // Set by ParkingService and the loaders; arrivals go through BookingRepository.recordArrival
+    public void setAwaitingArrival(boolean awaitingArrival) {
+        this.awaitingArrival = awaitingArrival;
+    }
+
     public void setVehicleNumber(String vehicleNumber) {
         this.vehicleNumber = vehicleNumber;
     }
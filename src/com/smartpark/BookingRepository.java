@@ -0,0 +1,299 @@
+/*
+ * File: BookingRepository.java
+ * Package: com.smartpark
+ * Purpose: In-memory store of bookings and payments with hash indexes for lookups
+ */
+
+package com.smartpark;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Holds all bookings and payments and keeps them indexed by booking ID, customer ID,
+ * slot number and status (bookings) and by booking ID (payments), so each lookup
+ * costs time proportional to the number of results rather than the whole history.
+ * Status changes must go through {@link #updateStatus(Booking, Booking.Status)} so the
+ * status index stays in sync; the compare-and-set overload lets concurrent callers
+ * race for a transition such as ACTIVE to COMPLETED with exactly one winner.
+ * A check-out that must be paid for first claims its booking with
+ * {@link #beginCheckOut(Booking)}: while the claim is held no other transition out of
+ * ACTIVE succeeds, and the claim either completes the booking or is given back.
+ * Adding a booking or payment whose ID is already present replaces the stored one,
+ * so replayed journal records can be fed straight in. The status index is an
+ * EnumMap with one map per status, created up front, keyed by booking ID so a
+ * long status such as COMPLETED can be read a page at a time.
+ *
+ * Listeners hear about every change while the repository's lock is held, so they
+ * see changes one at a time and in order. Holding the repository's monitor
+ * therefore also keeps listeners quiet.
+ */
+public class BookingRepository {
+    private final Map<String, Booking> bookingsById;  // insertion order, used for persistence
+    private final Map<String, List<Booking>> bookingsByCustomer;
+    private final Map<Integer, List<Booking>> bookingsBySlot;
+    private final Map<Booking.Status, NavigableMap<String, Booking>> bookingsByStatus;
+    private final Set<Booking> checkingOut;  // ACTIVE bookings claimed by a check-out; Booking compares by identity
+
+    private final Map<String, Payment> paymentsById;
+    private final Map<String, List<Payment>> paymentsByBookingId;
+    private final List<ChangeListener> listeners;
+
+    // REQUIREMENT #1: Nested interface - told about each change after the indexes are updated
+    public interface ChangeListener {
+        // previous is the booking this one replaced, or null
+        void bookingAdded(Booking previous, Booking booking);
+
+        void statusChanged(Booking booking, Booking.Status previousStatus);
+
+        // previous is the payment this one replaced, or null
+        void paymentAdded(Payment previous, Payment payment);
+    }
+
+    public BookingRepository() {
+        this.bookingsById = new LinkedHashMap<>();
+        this.bookingsByCustomer = new HashMap<>();
+        this.bookingsBySlot = new HashMap<>();
+        this.bookingsByStatus = new EnumMap<>(Booking.Status.class);
+        for (Booking.Status status : Booking.Status.values()) {
+            bookingsByStatus.put(status, new TreeMap<>());
+        }
+        this.checkingOut = new HashSet<>();
+        this.paymentsById = new LinkedHashMap<>();
+        this.paymentsByBookingId = new HashMap<>();
+        this.listeners = new CopyOnWriteArrayList<>();
+    }
+
+    public BookingRepository(List<Booking> bookings, List<Payment> payments) {
+        this();
+        for (Booking booking : bookings) {
+            addBooking(booking);
+        }
+        for (Payment payment : payments) {
+            addPayment(payment);
+        }
+    }
+
+    public synchronized void addBooking(Booking booking) {
+        Booking previous = bookingsById.put(booking.getBookingId(), booking);
+        if (previous != null) {
+            bookingsByCustomer.get(previous.getCustomerId()).remove(previous);
+            bookingsBySlot.get(previous.getSlotNumber()).remove(previous);
+            bookingsByStatus.get(previous.getStatus()).remove(previous.getBookingId(), previous);
+        }
+        bookingsByCustomer.computeIfAbsent(booking.getCustomerId(), k -> new ArrayList<>()).add(booking);
+        bookingsBySlot.computeIfAbsent(booking.getSlotNumber(), k -> new ArrayList<>()).add(booking);
+        bookingsByStatus.get(booking.getStatus()).put(booking.getBookingId(), booking);
+        for (ChangeListener listener : listeners) {
+            listener.bookingAdded(previous, booking);
+        }
+    }
+
+    // Adds the booking only if its ID is unused; returns false otherwise
+    public synchronized boolean addBookingIfAbsent(Booking booking) {
+        if (bookingsById.containsKey(booking.getBookingId())) {
+            return false;
+        }
+        addBooking(booking);
+        return true;
+    }
+
+    // Changes the status only if it is still expectedStatus and no check-out has claimed the
+    // booking; returns false otherwise
+    public synchronized boolean updateStatus(Booking booking, Booking.Status expectedStatus, Booking.Status newStatus) {
+        if (booking.getStatus() != expectedStatus || checkingOut.contains(booking)) {
+            return false;
+        }
+        updateStatus(booking, newStatus);
+        return true;
+    }
+
+    public synchronized void updateStatus(Booking booking, Booking.Status newStatus) {
+        Booking.Status previousStatus = booking.getStatus();
+        bookingsByStatus.get(previousStatus).remove(booking.getBookingId(), booking);
+        booking.setStatus(newStatus);
+        bookingsByStatus.get(newStatus).put(booking.getBookingId(), booking);
+        for (ChangeListener listener : listeners) {
+            listener.statusChanged(booking, previousStatus);
+        }
+    }
+
+    // Starts a RESERVED booking as an ACTIVE stay in the given slot, checked in at the given
+    // time; false if it was no longer reserved. The reserved end is cleared, as the stay has
+    // no check-out yet. The slot differs from the reserved one when that slot was still taken.
+    public synchronized boolean activate(Booking booking, int slotNumber, LocalDateTime checkInTime) {
+        if (booking.getStatus() != Booking.Status.RESERVED) {
+            return false;
+        }
+        if (slotNumber != booking.getSlotNumber()) {
+            bookingsBySlot.get(booking.getSlotNumber()).remove(booking);
+            booking.setSlotNumber(slotNumber);
+            bookingsBySlot.computeIfAbsent(slotNumber, k -> new ArrayList<>()).add(booking);
+        }
+        booking.setCheckInTime(checkInTime);
+        booking.setCheckOutTime(null);
+        updateStatus(booking, Booking.Status.ACTIVE);
+        return true;
+    }
+
+    // Completes an ACTIVE booking at the given time; false if it was no longer active or a
+    // check-out has claimed it. The check-out time is set before listeners hear of the change.
+    public synchronized boolean complete(Booking booking, LocalDateTime checkOutTime) {
+        if (booking.getStatus() != Booking.Status.ACTIVE || checkingOut.contains(booking)) {
+            return false;
+        }
+        booking.setCheckOutTime(checkOutTime);
+        updateStatus(booking, Booking.Status.COMPLETED);
+        return true;
+    }
+
+    // Claims an ACTIVE booking for a check-out that still has to be paid for; false if the
+    // booking is not active or another check-out holds it. Exactly one caller wins, so a
+    // stay is charged at most once. The winner must call completeCheckOut or abortCheckOut.
+    public synchronized boolean beginCheckOut(Booking booking) {
+        return booking.getStatus() == Booking.Status.ACTIVE && checkingOut.add(booking);
+    }
+
+    // Completes a claimed booking at the given time and drops the claim
+    public synchronized void completeCheckOut(Booking booking, LocalDateTime checkOutTime) {
+        if (!checkingOut.remove(booking)) {
+            throw new IllegalStateException("Booking " + booking.getBookingId() + " was not claimed for check-out");
+        }
+        booking.setCheckOutTime(checkOutTime);
+        updateStatus(booking, Booking.Status.COMPLETED);
+    }
+
+    // Gives a claim back, e.g. after a declined payment; the booking stays ACTIVE
+    public synchronized void abortCheckOut(Booking booking) {
+        checkingOut.remove(booking);
+    }
+
+    // Marks an ACTIVE booking's vehicle as arrived; false if it was not awaiting arrival. Under
+    // the repository's lock, so it cannot interleave with a no-show cancelling the booking.
+    public synchronized boolean recordArrival(Booking booking) {
+        if (booking.getStatus() != Booking.Status.ACTIVE || !booking.isAwaitingArrival()) {
+            return false;
+        }
+        booking.setAwaitingArrival(false);
+        return true;
+    }
+
+    public synchronized Booking findBooking(String bookingId) {
+        return bookingsById.get(bookingId);
+    }
+
+    public synchronized List<Booking> findByCustomer(String customerId) {
+        return copyOf(bookingsByCustomer.get(customerId));
+    }
+
+    public synchronized List<Booking> findBySlot(int slotNumber) {
+        return copyOf(bookingsBySlot.get(slotNumber));
+    }
+
+    // Bookings with the status, in booking ID order
+    public synchronized List<Booking> findByStatus(Booking.Status status) {
+        return new ArrayList<>(bookingsByStatus.get(status).values());
+    }
+
+    // One page of findByStatus: up to limit bookings whose IDs sort after afterBookingId
+    // (null for the first page). Pass the last ID returned to read the next page.
+    public synchronized List<Booking> findByStatus(Booking.Status status, String afterBookingId, int limit) {
+        NavigableMap<String, Booking> index = bookingsByStatus.get(status);
+        if (afterBookingId != null) {
+            index = index.tailMap(afterBookingId, false);
+        }
+        List<Booking> page = new ArrayList<>(Math.min(limit, 1024));
+        for (Booking booking : index.values()) {
+            if (page.size() == limit) {
+                break;
+            }
+            page.add(booking);
+        }
+        return page;
+    }
+
+    public synchronized int countByStatus(Booking.Status status) {
+        return bookingsByStatus.get(status).size();
+    }
+
+    public synchronized void addPayment(Payment payment) {
+        Payment previous = paymentsById.put(payment.getPaymentId(), payment);
+        if (previous != null) {
+            paymentsByBookingId.get(previous.getBookingId()).remove(previous);
+        }
+        paymentsByBookingId.computeIfAbsent(payment.getBookingId(), k -> new ArrayList<>()).add(payment);
+        for (ChangeListener listener : listeners) {
+            listener.paymentAdded(previous, payment);
+        }
+    }
+
+    // Adds many payments under one acquisition of the lock
+    public synchronized void addPayments(Collection<Payment> payments) {
+        for (Payment payment : payments) {
+            addPayment(payment);
+        }
+    }
+
+    public synchronized Payment findPayment(String paymentId) {
+        return paymentsById.get(paymentId);
+    }
+
+    public synchronized List<Payment> findPayments(String bookingId) {
+        return copyOf(paymentsByBookingId.get(bookingId));
+    }
+
+    // Payments for all of a customer's bookings, via the customer and payment indexes
+    public synchronized List<Payment> findPaymentsByCustomer(String customerId) {
+        List<Payment> result = new ArrayList<>();
+        List<Booking> customerBookings = bookingsByCustomer.get(customerId);
+        if (customerBookings != null) {
+            for (Booking booking : customerBookings) {
+                List<Payment> bookingPayments = paymentsByBookingId.get(booking.getBookingId());
+                if (bookingPayments != null) {
+                    result.addAll(bookingPayments);
+                }
+            }
+        }
+        return result;
+    }
+
+    public synchronized List<Booking> getAllBookings() {
+        return new ArrayList<>(bookingsById.values());
+    }
+
+    public synchronized List<Payment> getAllPayments() {
+        return new ArrayList<>(paymentsById.values());
+    }
+
+    public synchronized int getBookingCount() {
+        return bookingsById.size();
+    }
+
+    public synchronized int getPaymentCount() {
+        return paymentsById.size();
+    }
+
+    public void addListener(ChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(ChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    private static <T> List<T> copyOf(List<T> list) {
+        return list != null ? new ArrayList<>(list) : Collections.emptyList();
+    }
+}
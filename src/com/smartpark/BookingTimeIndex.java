@@ -0,0 +1,295 @@
+/*
+ * File: BookingTimeIndex.java
+ * Package: com.smartpark
+ * Purpose: Interval index over booking stays for time-range, overlap and occupancy queries
+ * Requirements: #1 (Nested classes), #9 (Method overloading)
+ */
+
+package com.smartpark;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+/**
+ * Indexes each booking's stay [check-in, check-out) so history can be queried by
+ * time without scanning every booking: which stays overlapped a window, which
+ * bookings checked in during a window, how many slots were occupied at an
+ * instant, and the peak within a window.
+ *
+ * The index is an interval tree: a treap ordered by check-in time in which every
+ * node also records the latest check-out in its subtree. A query skips each
+ * subtree that ends before the window or starts after it. An overlap query costs
+ * O(log n + k) for k matches, and adding or removing a stay costs O(log n)
+ * expected, so years of history stay cheap to query.
+ *
+ * ACTIVE bookings are indexed as open-ended stays (no check-out yet), COMPLETED
+ * bookings with their check-out time. CANCELLED bookings are not indexed because
+ * no end time is recorded for them. RESERVED ones are not indexed either: they are
+ * future windows, not stays, and ReservationEngine keeps them. The index follows a
+ * BookingRepository through its ChangeListener, so updates arrive under the
+ * repository's lock. Queries synchronize on the index and may come from any thread.
+ */
+public class BookingTimeIndex implements BookingRepository.ChangeListener {
+    private static final long OPEN_END = Long.MAX_VALUE;
+
+    private Node root;
+    private final Map<Booking, Node> nodes = new IdentityHashMap<>();
+    private long nextSequence;  // breaks ties between equal check-in times
+
+    // REQUIREMENT #1: Static nested class - one indexed stay
+    private static final class Node {
+        final Booking booking;
+        final long start;      // epoch seconds, UTC reading of the LocalDateTime
+        final long end;        // exclusive; OPEN_END while the booking is active
+        final long sequence;
+        final int priority;
+        long maxEnd;           // latest end in this subtree
+        Node left;
+        Node right;
+
+        Node(Booking booking, long start, long end, long sequence) {
+            this.booking = booking;
+            this.start = start;
+            this.end = end;
+            this.sequence = sequence;
+            this.priority = ThreadLocalRandom.current().nextInt();
+            this.maxEnd = end;
+        }
+
+        boolean before(long otherStart, long otherSequence) {
+            return start < otherStart || (start == otherStart && sequence < otherSequence);
+        }
+
+        void update() {
+            long max = end;
+            if (left != null && left.maxEnd > max) max = left.maxEnd;
+            if (right != null && right.maxEnd > max) max = right.maxEnd;
+            maxEnd = max;
+        }
+    }
+
+    /** Indexes everything already in the repository, then follows its changes. */
+    public void attach(BookingRepository repository) {
+        synchronized (repository) {
+            for (Booking booking : repository.getAllBookings()) {
+                add(booking);
+            }
+            repository.addListener(this);
+        }
+    }
+
+    @Override
+    public synchronized void bookingAdded(Booking previous, Booking booking) {
+        if (previous != null) {
+            remove(previous);
+        }
+        add(booking);
+    }
+
+    @Override
+    public synchronized void statusChanged(Booking booking, Booking.Status previousStatus) {
+        remove(booking);  // the stay's end changes with its status
+        add(booking);
+    }
+
+    @Override
+    public void paymentAdded(Payment previous, Payment payment) {
+        // Payments carry no stay times
+    }
+
+    // REQUIREMENT #9: Method overloading (Case 1 - stays overlapping [from, to), oldest check-in first)
+    public synchronized List<Booking> findOverlapping(LocalDateTime from, LocalDateTime to) {
+        List<Booking> result = new ArrayList<>();
+        forEachOverlapping(root, seconds(from), seconds(to), node -> result.add(node.booking));
+        return result;
+    }
+
+    // REQUIREMENT #9: Method overloading (Case 2 - stays in progress at one instant)
+    public synchronized List<Booking> findOverlapping(LocalDateTime at) {
+        long t = seconds(at);
+        List<Booking> result = new ArrayList<>();
+        forEachOverlapping(root, t, t + 1, node -> result.add(node.booking));
+        return result;
+    }
+
+    // Bookings that checked in within [from, to), in check-in order
+    public synchronized List<Booking> findCheckedInBetween(LocalDateTime from, LocalDateTime to) {
+        List<Booking> result = new ArrayList<>();
+        forEachStartingIn(root, seconds(from), seconds(to), result);
+        return result;
+    }
+
+    // Number of stays in progress at the instant
+    public synchronized int occupancyAt(LocalDateTime at) {
+        long t = seconds(at);
+        int[] count = new int[1];
+        forEachOverlapping(root, t, t + 1, node -> count[0]++);
+        return count[0];
+    }
+
+    /**
+     * Highest number of simultaneous stays within [from, to): a sweep over the
+     * boundaries of the overlapping stays, O(log n + k log k).
+     */
+    public synchronized int peakOccupancy(LocalDateTime from, LocalDateTime to) {
+        long windowStart = seconds(from);
+        long windowEnd = seconds(to);
+        List<Node> overlapping = new ArrayList<>();
+        forEachOverlapping(root, windowStart, windowEnd, overlapping::add);
+        int k = overlapping.size();
+        long[] starts = new long[k];
+        long[] ends = new long[k];
+        for (int i = 0; i < k; i++) {
+            starts[i] = Math.max(overlapping.get(i).start, windowStart);
+            ends[i] = Math.min(overlapping.get(i).end, windowEnd);
+        }
+        Arrays.sort(starts);
+        Arrays.sort(ends);
+        int peak = 0;
+        int current = 0;
+        for (int s = 0, e = 0; s < k; ) {
+            if (starts[s] < ends[e]) {  // an end at the same second frees the slot first
+                peak = Math.max(peak, ++current);
+                s++;
+            } else {
+                current--;
+                e++;
+            }
+        }
+        return peak;
+    }
+
+    public synchronized int size() {
+        return nodes.size();
+    }
+
+    private void add(Booking booking) {
+        LocalDateTime checkIn = booking.getCheckInTime();
+        Booking.Status status = booking.getStatus();
+        if (checkIn == null || status == Booking.Status.CANCELLED || status == Booking.Status.RESERVED) {
+            return;
+        }
+        LocalDateTime checkOut = booking.getCheckOutTime();
+        long start = seconds(checkIn);
+        long end = booking.getStatus() == Booking.Status.ACTIVE || checkOut == null
+                ? OPEN_END : Math.max(seconds(checkOut), start + 1);
+        Node node = new Node(booking, start, end, nextSequence++);
+        root = insert(root, node);
+        nodes.put(booking, node);
+    }
+
+    private void remove(Booking booking) {
+        Node node = nodes.remove(booking);
+        if (node != null) {
+            root = delete(root, node);
+        }
+    }
+
+    private static Node insert(Node tree, Node node) {
+        if (tree == null) {
+            return node;
+        }
+        if (node.before(tree.start, tree.sequence)) {
+            tree.left = insert(tree.left, node);
+            if (tree.left.priority > tree.priority) {
+                tree = rotateRight(tree);
+            }
+        } else {
+            tree.right = insert(tree.right, node);
+            if (tree.right.priority > tree.priority) {
+                tree = rotateLeft(tree);
+            }
+        }
+        tree.update();
+        return tree;
+    }
+
+    private static Node delete(Node tree, Node node) {
+        if (tree == null) {
+            return null;
+        }
+        if (tree == node) {
+            return merge(tree.left, tree.right);
+        }
+        if (node.before(tree.start, tree.sequence)) {
+            tree.left = delete(tree.left, node);
+        } else {
+            tree.right = delete(tree.right, node);
+        }
+        tree.update();
+        return tree;
+    }
+
+    // Joins two treaps where every key on the left precedes every key on the right
+    private static Node merge(Node left, Node right) {
+        if (left == null) return right;
+        if (right == null) return left;
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+
+    // In check-in order, every stay with start < to and end > from
+    private static void forEachOverlapping(Node tree, long from, long to, Consumer<Node> action) {
+        if (tree == null || tree.maxEnd <= from) {
+            return;  // everything below ended before the window
+        }
+        forEachOverlapping(tree.left, from, to, action);
+        if (tree.start >= to) {
+            return;  // this stay and everything to its right start after the window
+        }
+        if (tree.end > from) {
+            action.accept(tree);
+        }
+        forEachOverlapping(tree.right, from, to, action);
+    }
+
+    private static void forEachStartingIn(Node tree, long from, long to, List<Booking> result) {
+        if (tree == null) {
+            return;
+        }
+        if (tree.start >= from) {
+            forEachStartingIn(tree.left, from, to, result);
+        }
+        if (tree.start >= from && tree.start < to) {
+            result.add(tree.booking);
+        }
+        if (tree.start < to) {
+            forEachStartingIn(tree.right, from, to, result);
+        }
+    }
+
+    private static long seconds(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+}
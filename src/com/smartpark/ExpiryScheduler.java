@@ -0,0 +1,395 @@
+/*
+ * File: ExpiryScheduler.java
+ * Package: com.smartpark
+ * Purpose: Background deadlines for bookings - flags overstays and expires no-show
+ *          reservations and booked slots nobody arrived for
+ * Requirements: #1 (Nested classes), #9 (Method overloading)
+ */
+
+package com.smartpark;
+
+import com.smartpark.utils.Logger;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gives every live booking one deadline and acts on it when it passes:
+ *   - RESERVED: the customer has noShowGrace after the window starts to arrive;
+ *     after that the reservation is expired and its window freed.
+ *   - ACTIVE, booked ahead and awaiting arrival: when arrivalGrace is set, the
+ *     customer has that long after booking for an attendant to record the vehicle's
+ *     arrival; after that the booking is cancelled and its slot released.
+ *   - ACTIVE: a stay is flagged as an overstay at the reserved end, or maxStay
+ *     after check-in for a walk-in. When abandonAfter is set and the stay is still
+ *     active that much later, it is escalated to the log as abandoned.
+ * A stay with a recorded arrival is never cancelled here and its slot is never
+ * released: the vehicle may still be parked, and only a check-out ends the stay.
+ * Expiring goes through ParkingService.expire, so it is journaled like a
+ * cancellation and races safely with a late check-in or arrival.
+ *
+ * Deadlines sit in a hashed timer wheel: an array of buckets, one per tick, where a
+ * deadline goes in bucket (tick mod wheelSize) and waits there for as many turns of
+ * the wheel as it needs. Scheduling and cancelling are O(1), since each bucket is a
+ * doubly linked list. A tick looks only at its own bucket, never at the booking
+ * list. Deadlines come from the BookingRepository's ChangeListener events, so a
+ * booking that completes or is cancelled drops its deadline at once.
+ *
+ * start() runs the wheel from one daemon thread of a ScheduledExecutorService;
+ * advanceTo(time) runs it by hand. Times are LocalDateTime read as UTC, like the
+ * other booking indexes. Entries are changed under the scheduler's lock, but
+ * expiring a booking calls into the repository only after that lock is released,
+ * because repository events arrive holding the repository's lock.
+ */
+public class ExpiryScheduler implements BookingRepository.ChangeListener, AutoCloseable {
+    public static final Duration DEFAULT_TICK = Duration.ofMinutes(1);
+    public static final int DEFAULT_WHEEL_SIZE = 1024;  // about 17 hours of one-minute ticks
+    public static final Duration DEFAULT_NO_SHOW_GRACE = Duration.ofMinutes(30);
+    public static final Duration DEFAULT_MAX_STAY = Duration.ofHours(12);
+    public static final Duration DEFAULT_ARRIVAL_GRACE = Duration.ofHours(1);  // when the policy is on
+
+    /** What happens when a deadline passes. */
+    public enum Deadline {
+        NO_SHOW,   // a reservation, or a booked slot, nobody arrived for
+        OVERSTAY,  // a stay past its end; flagged, then watched for abandonment
+        ABANDONED  // an overstay left long enough to need an attendant; logged, never cancelled
+    }
+
+    private final ParkingService parkingService;
+    private final Logger logger;
+    private final long tickSeconds;
+    private final long noShowGraceSeconds;
+    private final long maxStaySeconds;
+    private final long abandonAfterSeconds;  // negative to only flag overstays (the default)
+    private final long arrivalGraceSeconds;  // negative to keep booked slots until check-out (the default)
+    private final Entry[] wheel;
+    private final int mask;
+    private final Map<Booking, Entry> entries = new IdentityHashMap<>();
+    private final Set<Booking> overstays = new LinkedHashSet<>();  // Booking compares by identity
+    private final Set<Booking> abandoned = new LinkedHashSet<>();   // overstays past abandonAfter
+    private long currentTick;  // every tick up to this one has been processed
+    private ScheduledExecutorService executor;
+
+    // REQUIREMENT #1: Static nested class - one booking's deadline, linked into a wheel bucket
+    private static final class Entry {
+        final Booking booking;
+        final Deadline kind;
+        final long deadline;     // epoch seconds
+        final long tick;         // deadline / tickSeconds, rounded up
+        final long reservedEnd;  // for NO_SHOW: the stay's deadline once the vehicle arrives
+        Entry prev;
+        Entry next;
+
+        Entry(Booking booking, Deadline kind, long deadline, long tick, long reservedEnd) {
+            this.booking = booking;
+            this.kind = kind;
+            this.deadline = deadline;
+            this.tick = tick;
+            this.reservedEnd = reservedEnd;
+        }
+    }
+
+    // REQUIREMENT #10: Constructor overloading (Case 1 - default deadlines; overstays are only flagged)
+    public ExpiryScheduler(ParkingService parkingService, Logger logger) {
+        this(parkingService, logger, DEFAULT_TICK, DEFAULT_WHEEL_SIZE, DEFAULT_NO_SHOW_GRACE,
+                DEFAULT_MAX_STAY, null);
+    }
+
+    /**
+     * REQUIREMENT #10: Constructor overloading (Case 2 - configurable deadlines; booked slots kept)
+     * wheelSize is rounded up to a power of two; a null abandonAfter only flags overstays.
+     */
+    public ExpiryScheduler(ParkingService parkingService, Logger logger, Duration tick, int wheelSize,
+                           Duration noShowGrace, Duration maxStay, Duration abandonAfter) {
+        this(parkingService, logger, tick, wheelSize, noShowGrace, maxStay, abandonAfter, null);
+    }
+
+    /**
+     * REQUIREMENT #10: Constructor overloading (Case 3 - everything configurable)
+     * A null arrivalGrace never cancels a booked slot; otherwise a booking still
+     * awaiting arrival that long after it was made is cancelled.
+     */
+    public ExpiryScheduler(ParkingService parkingService, Logger logger, Duration tick, int wheelSize,
+                           Duration noShowGrace, Duration maxStay, Duration abandonAfter,
+                           Duration arrivalGrace) {
+        this.parkingService = parkingService;
+        this.logger = logger;
+        this.tickSeconds = Math.max(1, tick.getSeconds());
+        this.noShowGraceSeconds = noShowGrace.getSeconds();
+        this.maxStaySeconds = maxStay.getSeconds();
+        this.abandonAfterSeconds = abandonAfter == null ? -1 : abandonAfter.getSeconds();
+        this.arrivalGraceSeconds = arrivalGrace == null ? -1 : arrivalGrace.getSeconds();
+        int size = Integer.highestOneBit(Math.max(2, wheelSize) - 1) << 1;
+        this.wheel = new Entry[size];
+        this.mask = size - 1;
+        this.currentTick = Math.floorDiv(seconds(LocalDateTime.now()), tickSeconds);
+    }
+
+    /** Schedules every live booking already in the repository, then follows its changes. */
+    public void attach(BookingRepository repository) {
+        synchronized (repository) {
+            synchronized (this) {
+                for (Booking booking : repository.findByStatus(Booking.Status.RESERVED)) {
+                    schedule(booking);
+                }
+                for (Booking booking : repository.findByStatus(Booking.Status.ACTIVE)) {
+                    schedule(booking);
+                }
+            }
+            repository.addListener(this);
+        }
+    }
+
+    // Runs the wheel every tick on a daemon thread until close()
+    public synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "expiry-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleAtFixedRate(() -> {
+            try {
+                advanceTo(LocalDateTime.now());
+            } catch (RuntimeException e) {
+                // A failed tick must not cancel the schedule
+                System.err.println("Error in expiry scheduler: " + e.getMessage());
+            }
+        }, tickSeconds, tickSeconds, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void close() {
+        ScheduledExecutorService running;
+        synchronized (this) {
+            running = executor;
+            executor = null;
+        }
+        if (running != null) {
+            running.shutdownNow();
+        }
+    }
+
+    @Override
+    public synchronized void bookingAdded(Booking previous, Booking booking) {
+        if (previous != null) {
+            unschedule(previous);
+            overstays.remove(previous);
+            abandoned.remove(previous);
+        }
+        schedule(booking);
+    }
+
+    @Override
+    public synchronized void statusChanged(Booking booking, Booking.Status previousStatus) {
+        Entry old = unschedule(booking);
+        if (old != null && old.kind == Deadline.NO_SHOW && booking.hasStatus(Booking.Status.ACTIVE)) {
+            // Arrived: the stay is due out at the end of the window it reserved
+            long checkIn = seconds(booking.getCheckInTime());
+            add(booking, Deadline.OVERSTAY, Math.max(old.reservedEnd, checkIn + 1), 0);
+            return;
+        }
+        schedule(booking);
+    }
+
+    @Override
+    public void paymentAdded(Payment previous, Payment payment) {
+        // Payments carry no deadlines
+    }
+
+    /**
+     * Processes every tick up to the given time and acts on the deadlines that passed.
+     * After a gap longer than one turn of the wheel, each bucket is visited once.
+     */
+    public void advanceTo(LocalDateTime now) {
+        List<Entry> due = new ArrayList<>();
+        synchronized (this) {
+            long target = Math.floorDiv(seconds(now), tickSeconds);
+            if (target <= currentTick) {
+                return;
+            }
+            long first = Math.max(currentTick + 1, target - mask);
+            for (long tick = first; tick <= target; tick++) {
+                collect((int) (tick & mask), target, due);
+            }
+            currentTick = target;
+            for (int i = 0; i < due.size(); i++) {
+                Entry entry = due.get(i);
+                if (entry.kind == Deadline.OVERSTAY && entry.booking.hasStatus(Booking.Status.ACTIVE)) {
+                    flagOverstay(entry);
+                    due.set(i, null);  // handled here, under the lock
+                } else if (entry.kind == Deadline.ABANDONED && entry.booking.hasStatus(Booking.Status.ACTIVE)) {
+                    flagAbandoned(entry.booking);
+                    due.set(i, null);
+                } else if (entry.kind == Deadline.NO_SHOW && entry.booking.hasStatus(Booking.Status.ACTIVE)
+                        && !entry.booking.isAwaitingArrival()) {
+                    // Arrived in time: watch the stay like any other
+                    add(entry.booking, Deadline.OVERSTAY, entry.reservedEnd, 0);
+                    due.set(i, null);
+                }
+            }
+        }
+        for (Entry entry : due) {
+            if (entry != null) {
+                expire(entry);
+            }
+        }
+    }
+
+    // REQUIREMENT #9: Method overloading (Case 1 - overstaying bookings, oldest flag first)
+    public synchronized List<Booking> getOverstays() {
+        return new ArrayList<>(overstays);
+    }
+
+    // REQUIREMENT #9: Method overloading (Case 2 - is this booking flagged)
+    public synchronized boolean isOverstay(Booking booking) {
+        return overstays.contains(booking);
+    }
+
+    // Overstays still active abandonAfter past their deadline, oldest first; empty unless abandonAfter is set
+    public synchronized List<Booking> getAbandoned() {
+        return new ArrayList<>(abandoned);
+    }
+
+    public synchronized int getScheduledCount() {
+        return entries.size();
+    }
+
+    // When the booking's pending deadline falls due, or null if it has none
+    public synchronized LocalDateTime getDeadline(Booking booking) {
+        Entry entry = entries.get(booking);
+        return entry == null ? null : LocalDateTime.ofEpochSecond(entry.deadline, 0, ZoneOffset.UTC);
+    }
+
+    // Picks the deadline for the booking's current status; nothing for a finished booking
+    private void schedule(Booking booking) {
+        LocalDateTime checkIn = booking.getCheckInTime();
+        if (checkIn == null) {
+            return;
+        }
+        if (booking.hasStatus(Booking.Status.RESERVED)) {
+            LocalDateTime end = booking.getCheckOutTime();
+            long reservedEnd = end == null ? seconds(checkIn) + maxStaySeconds : seconds(end);
+            add(booking, Deadline.NO_SHOW, seconds(checkIn) + noShowGraceSeconds, reservedEnd);
+        } else if (booking.hasStatus(Booking.Status.ACTIVE) && booking.isAwaitingArrival()
+                && arrivalGraceSeconds >= 0) {
+            add(booking, Deadline.NO_SHOW, seconds(checkIn) + arrivalGraceSeconds,
+                    seconds(checkIn) + maxStaySeconds);
+        } else if (booking.hasStatus(Booking.Status.ACTIVE)) {
+            add(booking, Deadline.OVERSTAY, seconds(checkIn) + maxStaySeconds, 0);
+        } else {
+            overstays.remove(booking);  // checked out or cancelled, perhaps after overstaying
+            abandoned.remove(booking);
+        }
+    }
+
+    // O(1): links a new entry at the head of its bucket; a past deadline waits for the next tick
+    private void add(Booking booking, Deadline kind, long deadline, long reservedEnd) {
+        long tick = Math.max(Math.floorDiv(deadline + tickSeconds - 1, tickSeconds), currentTick + 1);
+        Entry entry = new Entry(booking, kind, deadline, tick, reservedEnd);
+        int bucket = (int) (tick & mask);
+        entry.next = wheel[bucket];
+        if (entry.next != null) {
+            entry.next.prev = entry;
+        }
+        wheel[bucket] = entry;
+        Entry replaced = entries.put(booking, entry);
+        if (replaced != null) {
+            unlink(replaced);
+        }
+    }
+
+    // O(1): drops the booking's pending deadline, returning it
+    private Entry unschedule(Booking booking) {
+        Entry entry = entries.remove(booking);
+        if (entry != null) {
+            unlink(entry);
+        }
+        return entry;
+    }
+
+    private void unlink(Entry entry) {
+        int bucket = (int) (entry.tick & mask);
+        if (entry.prev != null) {
+            entry.prev.next = entry.next;
+        } else if (wheel[bucket] == entry) {
+            wheel[bucket] = entry.next;
+        }
+        if (entry.next != null) {
+            entry.next.prev = entry.prev;
+        }
+        entry.prev = null;
+        entry.next = null;
+    }
+
+    // Takes the bucket's entries that are due by 'target'; later turns of the wheel stay put
+    private void collect(int bucket, long target, List<Entry> due) {
+        Entry entry = wheel[bucket];
+        while (entry != null) {
+            Entry next = entry.next;
+            if (entry.tick <= target) {
+                unlink(entry);
+                entries.remove(entry.booking);
+                due.add(entry);
+            }
+            entry = next;
+        }
+    }
+
+    private void flagOverstay(Entry entry) {
+        Booking booking = entry.booking;
+        if (overstays.add(booking)) {
+            logger.logEvents(Logger.LogLevel.WARNING,
+                    () -> "Booking " + booking.getBookingId() + " overstayed at slot " + booking.getSlotNumber(),
+                    () -> "Vehicle: " + booking.getVehicleNumber());
+        }
+        if (abandonAfterSeconds >= 0) {
+            add(booking, Deadline.ABANDONED, entry.deadline + abandonAfterSeconds, 0);
+        }
+    }
+
+    // The vehicle may still be there, so the stay is only reported; an attendant decides
+    private void flagAbandoned(Booking booking) {
+        if (abandoned.add(booking)) {
+            logger.logEvents(Logger.LogLevel.ERROR,
+                    () -> "Booking " + booking.getBookingId() + " still active long after overstaying at slot "
+                            + booking.getSlotNumber(),
+                    () -> "Vehicle: " + booking.getVehicleNumber() + " - check the slot before checking it out");
+        }
+    }
+
+    // Outside the lock: the repository's events call back into this scheduler
+    private void expire(Entry entry) {
+        Booking booking = entry.booking;
+        if (entry.kind != Deadline.NO_SHOW) {
+            return;
+        }
+        if (booking.hasStatus(Booking.Status.RESERVED)) {
+            parkingService.expire(booking, "No-show for reservation");
+        } else if (booking.hasStatus(Booking.Status.ACTIVE)
+                && !parkingService.expire(booking, "No arrival for booked slot").isSuccess()) {
+            // The arrival was recorded just in time
+            synchronized (this) {
+                if (booking.hasStatus(Booking.Status.ACTIVE) && !entries.containsKey(booking)) {
+                    add(booking, Deadline.OVERSTAY, entry.reservedEnd, 0);
+                }
+            }
+        }
+    }
+
+    private static long seconds(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+}
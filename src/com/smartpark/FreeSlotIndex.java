@@ -0,0 +1,135 @@
+/*
+ * File: FreeSlotIndex.java
+ * Package: com.smartpark
+ * Purpose: Hierarchical bitmap of free slots used by ParkingLot for fast allocation
+ */
+
+package com.smartpark;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Hierarchical bitmap over slot positions 0..capacity-1.
+ * Level 0 holds one bit per slot (set = free). Each higher level holds one bit per
+ * word of the level below (set = that word has at least one free slot), up to a
+ * single top word. Finding the lowest free slot therefore touches one word per
+ * level, i.e. O(log64 n) regardless of occupancy.
+ *
+ * The structure is lock-free: a slot is claimed by CAS-clearing its level 0 bit, so
+ * exactly one caller wins each slot. Upper levels are only hints; a set summary bit
+ * over an empty word is skipped during search, and whoever empties a word re-checks
+ * it after clearing the summary bit so a concurrent release is never hidden.
+ */
+final class FreeSlotIndex {
+    private final int capacity;
+    private final AtomicLongArray[] levels;
+
+    FreeSlotIndex(int capacity) {
+        this.capacity = capacity;
+
+        int depth = 1;
+        for (int bits = capacity; bits > 64; bits = wordsFor(bits)) {
+            depth++;
+        }
+        this.levels = new AtomicLongArray[depth];
+        int bits = capacity;
+        for (int level = 0; level < depth; level++) {
+            levels[level] = new AtomicLongArray(Math.max(1, wordsFor(bits)));
+            bits = wordsFor(bits);
+        }
+    }
+
+    private static int wordsFor(int bits) {
+        return (bits + 63) >>> 6;
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    boolean get(int index) {
+        return (levels[0].get(index >>> 6) & (1L << index)) != 0;
+    }
+
+    /** Marks a position free. Returns false if it was already free. */
+    boolean set(int index) {
+        return set(0, index);
+    }
+
+    /** Claims a position. Returns false if it was not free (or another caller won it). */
+    boolean clear(int index) {
+        return clear(0, index);
+    }
+
+    private boolean set(int level, int bit) {
+        AtomicLongArray words = levels[level];
+        int w = bit >>> 6;
+        long mask = 1L << bit;
+        long before;
+        do {
+            before = words.get(w);
+            if ((before & mask) != 0) {
+                return false;
+            }
+        } while (!words.compareAndSet(w, before, before | mask));
+
+        if (level + 1 < levels.length && (levels[level + 1].get(w >>> 6) & (1L << w)) == 0) {
+            set(level + 1, w);
+        }
+        return true;
+    }
+
+    private boolean clear(int level, int bit) {
+        AtomicLongArray words = levels[level];
+        int w = bit >>> 6;
+        long mask = 1L << bit;
+        long before;
+        do {
+            before = words.get(w);
+            if ((before & mask) == 0) {
+                return false;
+            }
+        } while (!words.compareAndSet(w, before, before & ~mask));
+
+        if (before == mask && level + 1 < levels.length) {
+            // This word just became empty: drop its summary bit, then restore it
+            // if a concurrent set() landed in the word in the meantime.
+            clear(level + 1, w);
+            if (words.get(w) != 0) {
+                set(level + 1, w);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the lowest free position at or after {@code from}, or -1 if none.
+     * Under concurrent updates the result is a candidate that must still be claimed.
+     */
+    int nextSetBit(int from) {
+        if (from < 0 || from >= capacity) {
+            return -1;
+        }
+        return nextSetBit(0, from);
+    }
+
+    private int nextSetBit(int level, int from) {
+        AtomicLongArray words = levels[level];
+        int w = from >>> 6;
+        if (w >= words.length()) {
+            return -1;
+        }
+        long word = words.get(w) & (-1L << from);
+        while (word == 0) {
+            if (level == levels.length - 1) {
+                return -1;
+            }
+            w = nextSetBit(level + 1, w + 1);
+            if (w < 0) {
+                return -1;
+            }
+            word = words.get(w);
+        }
+        return (w << 6) + Long.numberOfTrailingZeros(word);
+    }
+}
@@ -0,0 +1,308 @@
+/*
+ * File: LotRegistry.java
+ * Package: com.smartpark
+ * Purpose: Registry of many parking lots with routed allocation and aggregate availability
+ * Requirements: #1 (Nested classes), #9 (Method overloading)
+ */
+
+package com.smartpark;
+
+import com.smartpark.exceptions.NoAvailableSlotException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds any number of ParkingLot instances keyed by lot ID and routes each
+ * allocation to one of them: the lot explicitly asked for, the nearest lot to a
+ * position, or the least-loaded lot. Lots share no state: each keeps its own
+ * free-slot bitmaps and counters, so traffic at one garage never contends with
+ * another's, and the registry itself is a ConcurrentHashMap that is only read on
+ * the allocation path.
+ *
+ * Aggregate figures are summed from each lot's atomic counters, so they cost
+ * O(number of lots) regardless of how many slots the lots have.
+ */
+public class LotRegistry implements ParkingLot.Metrics {
+    private final Map<String, Entry> lots;
+
+    // REQUIREMENT #1: Static nested class - a registered lot and its location
+    private static final class Entry {
+        final ParkingLot lot;
+        final double latitude;   // NaN when the lot has no known location
+        final double longitude;
+
+        Entry(ParkingLot lot, double latitude, double longitude) {
+            this.lot = lot;
+            this.latitude = latitude;
+            this.longitude = longitude;
+        }
+
+        boolean hasLocation() {
+            return !Double.isNaN(latitude) && !Double.isNaN(longitude);
+        }
+
+        double availableFraction() {
+            int total = lot.getTotalSlots();
+            return total == 0 ? 0.0 : (double) lot.getMonitor().getAvailableSlots() / total;
+        }
+    }
+
+    /** A slot handed out by the registry, together with the lot it belongs to. */
+    public static final class Allocation {
+        private final ParkingLot lot;
+        private final ParkingLot.Slot slot;
+
+        Allocation(ParkingLot lot, ParkingLot.Slot slot) {
+            this.lot = lot;
+            this.slot = slot;
+        }
+
+        public ParkingLot getLot() {
+            return lot;
+        }
+
+        public String getLotId() {
+            return lot.getParkingLotId();
+        }
+
+        public ParkingLot.Slot getSlot() {
+            return slot;
+        }
+
+        @Override
+        public String toString() {
+            return lot.getParkingLotId() + "/" + slot.getSlotNumber();
+        }
+    }
+
+    public LotRegistry() {
+        this.lots = new ConcurrentHashMap<>();
+    }
+
+    // REQUIREMENT #9: Method overloading (Case 1 - register a lot without a location)
+    public boolean register(ParkingLot lot) {
+        return register(lot, Double.NaN, Double.NaN);
+    }
+
+    // REQUIREMENT #9: Method overloading (Case 2 - register a lot at a position in degrees)
+    public boolean register(ParkingLot lot, double latitude, double longitude) {
+        return lots.putIfAbsent(lot.getParkingLotId(), new Entry(lot, latitude, longitude)) == null;
+    }
+
+    public ParkingLot unregister(String lotId) {
+        Entry removed = lots.remove(lotId);
+        return removed != null ? removed.lot : null;
+    }
+
+    public ParkingLot getLot(String lotId) {
+        Entry entry = lots.get(lotId);
+        return entry != null ? entry.lot : null;
+    }
+
+    public Collection<ParkingLot> getLots() {
+        List<ParkingLot> result = new ArrayList<>(lots.size());
+        for (Entry entry : lots.values()) {
+            result.add(entry.lot);
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    public int size() {
+        return lots.size();
+    }
+
+    // REQUIREMENT #9: Method overloading (Case 3 - allocate in an explicitly requested lot)
+    public Allocation allocateSlot(String lotId, String vehicleNumber, String customerId)
+            throws NoAvailableSlotException {
+        return allocateSlot(lotId, vehicleNumber, customerId, null);
+    }
+
+    // REQUIREMENT #9: Method overloading (Case 4 - explicit lot with slot type preference, null for any)
+    public Allocation allocateSlot(String lotId, String vehicleNumber, String customerId,
+                                   ParkingLot.SlotType preferredType) throws NoAvailableSlotException {
+        Entry entry = lots.get(lotId);
+        if (entry == null) {
+            throw new NoAvailableSlotException("Unknown parking lot: " + lotId);
+        }
+        return new Allocation(entry.lot, allocateIn(entry.lot, vehicleNumber, customerId, preferredType));
+    }
+
+    /**
+     * Allocates in the lot closest to the given position, moving on to the next
+     * closest when a lot is full. Lots without a location are tried last. A
+     * preferred type is looked for in every lot, nearest first, before any lot
+     * hands out a slot of another type.
+     */
+    public Allocation allocateNearest(double latitude, double longitude, String vehicleNumber, String customerId,
+                                      ParkingLot.SlotType preferredType) throws NoAvailableSlotException {
+        List<Entry> candidates = new ArrayList<>(lots.values());
+        double[] distance = new double[candidates.size()];
+        for (int i = 0; i < distance.length; i++) {
+            Entry entry = candidates.get(i);
+            distance[i] = entry.hasLocation()
+                    ? distanceKm(latitude, longitude, entry.latitude, entry.longitude)
+                    : Double.POSITIVE_INFINITY;
+        }
+        // Pass 0 only takes the preferred type; pass 1 takes any type
+        for (int pass = preferredType == null ? 1 : 0; pass < 2; pass++) {
+            // Selection order instead of a full sort: most requests succeed at the first lot
+            boolean[] tried = new boolean[distance.length];
+            for (int attempt = 0; attempt < distance.length; attempt++) {
+                int best = -1;
+                for (int i = 0; i < distance.length; i++) {
+                    if (!tried[i] && (best < 0 || distance[i] < distance[best])) {
+                        best = i;
+                    }
+                }
+                tried[best] = true;
+                Entry entry = candidates.get(best);
+                Allocation allocation = pass == 0
+                        ? tryClaim(entry, preferredType, vehicleNumber, customerId)
+                        : tryAllocate(entry, vehicleNumber, customerId, null);
+                if (allocation != null) {
+                    return allocation;
+                }
+            }
+        }
+        throw new NoAvailableSlotException("No available slots in any parking lot!");
+    }
+
+    /**
+     * Allocates in the lot with the largest share of free slots, moving on to the
+     * next one if that lot fills up before the claim lands.
+     */
+    public Allocation allocateLeastLoaded(String vehicleNumber, String customerId, ParkingLot.SlotType preferredType)
+            throws NoAvailableSlotException {
+        List<Entry> candidates = new ArrayList<>(lots.values());
+        while (!candidates.isEmpty()) {
+            int best = 0;
+            double bestFree = candidates.get(0).availableFraction();
+            for (int i = 1; i < candidates.size(); i++) {
+                double free = candidates.get(i).availableFraction();
+                if (free > bestFree) {
+                    best = i;
+                    bestFree = free;
+                }
+            }
+            if (bestFree <= 0.0) {
+                break;
+            }
+            Allocation allocation = tryAllocate(candidates.get(best), vehicleNumber, customerId, preferredType);
+            if (allocation != null) {
+                return allocation;
+            }
+            candidates.remove(best);
+        }
+        throw new NoAvailableSlotException("No available slots in any parking lot!");
+    }
+
+    public void deallocateSlot(String lotId, int slotNumber) {
+        Entry entry = lots.get(lotId);
+        if (entry != null) {
+            entry.lot.deallocateSlot(slotNumber);
+        }
+    }
+
+    @Override
+    public int getTotalSlots() {
+        int total = 0;
+        for (Entry entry : lots.values()) {
+            total += entry.lot.getTotalSlots();
+        }
+        return total;
+    }
+
+    @Override
+    public int getAvailableSlots() {
+        int available = 0;
+        for (Entry entry : lots.values()) {
+            available += entry.lot.getMonitor().getAvailableSlots();
+        }
+        return available;
+    }
+
+    public int getAvailableSlots(ParkingLot.SlotType slotType) {
+        int available = 0;
+        for (Entry entry : lots.values()) {
+            available += entry.lot.getMonitor().getAvailableSlots(slotType);
+        }
+        return available;
+    }
+
+    @Override
+    public int getOccupiedSlots() {
+        // One pass, so the two sums come from the same moment as far as possible
+        int total = 0;
+        int available = 0;
+        for (Entry entry : lots.values()) {
+            total += entry.lot.getTotalSlots();
+            available += entry.lot.getMonitor().getAvailableSlots();
+        }
+        return total - available;
+    }
+
+    @Override
+    public double getOccupancyRate() {
+        int total = 0;
+        int available = 0;
+        for (Entry entry : lots.values()) {
+            total += entry.lot.getTotalSlots();
+            available += entry.lot.getMonitor().getAvailableSlots();
+        }
+        if (total == 0) return 0.0;
+        return (double) (total - available) / total * 100;
+    }
+
+    @Override
+    public String toString() {
+        int total = getTotalSlots();
+        return String.format("LotRegistry{lots=%d, totalSlots=%d, available=%d}",
+                lots.size(), total, getAvailableSlots());
+    }
+
+    private static ParkingLot.Slot allocateIn(ParkingLot lot, String vehicleNumber, String customerId,
+                                              ParkingLot.SlotType preferredType) throws NoAvailableSlotException {
+        if (preferredType == null) {
+            return lot.allocateSlot(vehicleNumber, customerId);
+        }
+        return lot.allocateSlot(vehicleNumber, customerId, preferredType);
+    }
+
+    // Null when the lot turned out to be full
+    private static Allocation tryAllocate(Entry entry, String vehicleNumber, String customerId,
+                                          ParkingLot.SlotType preferredType) {
+        if (entry.lot.getMonitor().getAvailableSlots() == 0) {
+            return null;
+        }
+        try {
+            return new Allocation(entry.lot, allocateIn(entry.lot, vehicleNumber, customerId, preferredType));
+        } catch (NoAvailableSlotException e) {
+            return null;
+        }
+    }
+
+    // A slot of exactly this type, with no fallback to other types; null if the lot has none free
+    private static Allocation tryClaim(Entry entry, ParkingLot.SlotType slotType, String vehicleNumber,
+                                       String customerId) {
+        if (entry.lot.getMonitor().getAvailableSlots(slotType) == 0) {
+            return null;
+        }
+        ParkingLot.Slot slot = entry.lot.claimFree(slotType.ordinal(), vehicleNumber, customerId);
+        return slot != null ? new Allocation(entry.lot, slot) : null;
+    }
+
+    // Great-circle distance (haversine) in kilometres
+    private static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 6371.0 * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+}
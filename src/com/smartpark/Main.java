@@ -7,19 +7,29 @@
 
 package com.smartpark;
 
-import com.smartpark.exceptions.InvalidBookingException;
 import com.smartpark.exceptions.NoAvailableSlotException;
+import com.smartpark.io.BinaryStore;
 import com.smartpark.io.DataStore;
 import com.smartpark.users.Admin;
 import com.smartpark.users.Attendant;
 import com.smartpark.users.Customer;
 import com.smartpark.users.User;
+import com.smartpark.users.UserDirectory;
 import com.smartpark.utils.Logger;
 import com.smartpark.utils.Report;
 
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.DayOfWeek;
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Scanner;
@@ -31,14 +41,40 @@ import java.util.UUID;
  * Main entry point demonstrating all 12 OOP requirements.
  */
 public class Main {
+    // Lots on this site and their slot counts. The first is the home lot, which also takes
+    // bookings and reservations; walk-ins go to whichever lot is least loaded.
+    private static final String[] LOT_IDS = {"LOT-001", "LOT-002", "LOT-003"};
+    private static final int[] LOT_SIZES = {20, 30, 12};
+
+    // REQUIREMENT #1: Static nested class - a walk-in lot beside the home lot, with its own
+    // bookings, journal (under data/<lot ID>) and overstay scheduler
+    private static final class Site {
+        final ParkingService service;
+        final DataStore dataStore;
+        final ExpiryScheduler expiryScheduler;
+
+        Site(ParkingService service, DataStore dataStore, ExpiryScheduler expiryScheduler) {
+            this.service = service;
+            this.dataStore = dataStore;
+            this.expiryScheduler = expiryScheduler;
+        }
+    }
+
+    private static final Map<String, Site> sites = new LinkedHashMap<>();  // by lot ID, home lot excluded
+    private static LotRegistry lotRegistry;
     private static ParkingLot parkingLot;
     private static DataStore dataStore;
+    private static BinaryStore binaryStore;  // bookings and payments snapshots; null unless run with --binary
     private static Logger logger;
     private static Report report;
 
-    private static List<User> users;
-    private static List<Booking> bookings;
-    private static List<Payment> payments;
+    private static UserDirectory userDirectory;
+    private static BookingRepository bookingRepository;
+    private static ParkingService parkingService;
+    private static ReportAggregates reportAggregates;
+    private static BookingTimeIndex bookingTimeIndex;
+    private static ReservationEngine reservationEngine;
+    private static ExpiryScheduler expiryScheduler;
 
     private static User currentUser;
     private static Scanner scanner;
@@ -46,8 +82,8 @@ public class Main {
     public static void main(String[] args) {
         scanner = new Scanner(System.in);
 
-        // Initialize system
-        initializeSystem();
+        // Initialize system; --binary keeps bookings and payments in memory-mapped binary files
+        initializeSystem(args.length > 0 && "--binary".equals(args[0]));
 
         // Main menu loop
         boolean running = true;
@@ -60,31 +96,83 @@ public class Main {
         }
 
         // Cleanup
+        expiryScheduler.close();
+        for (Site site : sites.values()) {
+            site.expiryScheduler.close();
+        }
         saveAllData();
         scanner.close();
         System.out.println("Thank you for using Smart Parking Management System. Goodbye!");
     }
 
-    private static void initializeSystem() {
+    private static void initializeSystem(boolean binary) {
         System.out.println("Initializing Smart Parking Management System...");
 
         // REQUIREMENT #6: Package organization - com.smartpark
-        parkingLot = new ParkingLot("LOT-001", 20);
+        lotRegistry = new LotRegistry();
+        for (int i = 0; i < LOT_IDS.length; i++) {
+            lotRegistry.register(new ParkingLot(LOT_IDS[i], LOT_SIZES[i]));
+        }
+        parkingLot = lotRegistry.getLot(LOT_IDS[0]);
 
         // REQUIREMENT #6: Package organization - com.smartpark.io
-        dataStore = new DataStore("data");
+        dataStore = new DataStore("data", true);
+        if (binary) {
+            binaryStore = new BinaryStore("data");
+            if (!Files.exists(Paths.get(binaryStore.getBookingsFile()))) {
+                BinaryStore.convertFromText(dataStore, binaryStore);  // first binary run starts from the text files
+            }
+        }
 
         // REQUIREMENT #6: Package organization - com.smartpark.utils
         logger = new Logger();
         report = new Report("REPORT-001");
 
-        // REQUIREMENT #6: Package organization - Load data from files
-        users = dataStore.loadUsers();
-        bookings = dataStore.loadBookings();
-        payments = dataStore.loadPayments();
+        // REQUIREMENT #6: Package organization - Load data from files straight into the indexes
+        userDirectory = new UserDirectory();
+        bookingRepository = new BookingRepository();
+        reportAggregates = new ReportAggregates(parkingLot);
+        reportAggregates.attach(bookingRepository);  // counts the history below as it loads
+        bookingTimeIndex = new BookingTimeIndex();
+        bookingTimeIndex.attach(bookingRepository);
+        dataStore.forEachUser(userDirectory::register);
+        if (binaryStore != null) {
+            // Binary snapshot, then the changes journaled since it was written
+            binaryStore.loadBookings().forEach(bookingRepository::addBooking);
+            dataStore.forEachJournaledBooking(bookingRepository::addBooking);
+            binaryStore.loadPayments().forEach(bookingRepository::addPayment);
+            dataStore.forEachJournaledPayment(bookingRepository::addPayment);
+        } else {
+            dataStore.forEachBooking(bookingRepository::addBooking);
+            dataStore.forEachPayment(bookingRepository::addPayment);
+        }
+        restoreParked(parkingLot, bookingRepository);
+        reservationEngine = new ReservationEngine(parkingLot);
+        parkingService = new ParkingService(parkingLot, bookingRepository, dataStore, logger, reservationEngine);
+        parkingService.restoreReservations();
+        parkingService.setTariff(new TariffEngine(new TariffEngine.Rules("City Centre")
+                .baseRate(50.0)
+                .baseRate(ParkingLot.SlotType.COMPACT, 40.0)
+                .baseRate(ParkingLot.SlotType.HANDICAP, 30.0)
+                .weekend(1.25)
+                .band(EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY), LocalTime.of(8, 0), LocalTime.of(10, 0), 1.5)
+                .band(EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY), LocalTime.of(17, 0), LocalTime.of(20, 0), 1.5)
+                .band(LocalTime.of(22, 0), LocalTime.of(6, 0), 0.6)
+                .grace(Duration.ofMinutes(10))
+                .minimum(Duration.ofHours(1))));
+        parkingLot.setSlotHold(reservationEngine);  // walk-ins now leave reserved slots alone
+        // Booked slots are held for an hour; with no arrival recorded by then they go back on sale
+        expiryScheduler = new ExpiryScheduler(parkingService, logger, ExpiryScheduler.DEFAULT_TICK,
+                ExpiryScheduler.DEFAULT_WHEEL_SIZE, ExpiryScheduler.DEFAULT_NO_SHOW_GRACE,
+                ExpiryScheduler.DEFAULT_MAX_STAY, null, ExpiryScheduler.DEFAULT_ARRIVAL_GRACE);
+        expiryScheduler.attach(bookingRepository);
+        expiryScheduler.start();
+        for (int i = 1; i < LOT_IDS.length; i++) {
+            openSite(lotRegistry.getLot(LOT_IDS[i]));
+        }
 
         // Initialize with sample data if files are empty
-        if (users.isEmpty()) {
+        if (userDirectory.isEmpty()) {
             initializeSampleData();
         }
 
@@ -92,11 +180,65 @@ public class Main {
         logger.logMultiple(
                 "System initialized",
                 "Data loaded from persistent storage",
-                "Parking lot ready with " + parkingLot.getTotalSlots() + " slots"
+                "Parking lots ready with " + lotRegistry.getTotalSlots() + " slots in " + lotRegistry.size() + " lots"
         );
 
         System.out.println("System initialized successfully!");
-        System.out.println(parkingLot.toString());
+        System.out.println(lotRegistry.toString());
+    }
+
+    // Loads a walk-in lot's bookings from its own journal and starts flagging its overstays
+    private static void openSite(ParkingLot lot) {
+        DataStore store = new DataStore("data" + File.separator + lot.getParkingLotId(), true);
+        BookingRepository repository = new BookingRepository();
+        store.forEachBooking(repository::addBooking);
+        store.forEachPayment(repository::addPayment);
+        restoreParked(lot, repository);
+
+        ParkingService service = new ParkingService(lot, repository, store, logger);
+        service.setTariff(parkingService.getTariff());
+        ExpiryScheduler scheduler = new ExpiryScheduler(service, logger);
+        scheduler.attach(repository);
+        scheduler.start();
+        sites.put(lot.getParkingLotId(), new Site(service, store, scheduler));
+    }
+
+    // Vehicles still parked from the previous run keep their slots
+    private static void restoreParked(ParkingLot lot, BookingRepository repository) {
+        for (Booking booking : repository.findByStatus(Booking.Status.ACTIVE)) {
+            try {
+                lot.allocateSlot(booking.getSlotNumber(), booking.getVehicleNumber(), booking.getCustomerId());
+            } catch (NoAvailableSlotException e) {
+                System.err.println("Error restoring booking " + booking.getBookingId() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    // The service of the lot that holds the booking; the home lot's when none does, so its
+    // "not found" message is the one shown
+    private static ParkingService serviceFor(String bookingId) {
+        for (Site site : sites.values()) {
+            if (site.service.getBookingRepository().findBooking(bookingId) != null) {
+                return site.service;
+            }
+        }
+        return parkingService;
+    }
+
+    private static ParkingService serviceForLot(String lotId) {
+        Site site = sites.get(lotId);
+        return site != null ? site.service : parkingService;
+    }
+
+    // The home lot's service first, then the walk-in lots'
+    private static List<ParkingService> allServices() {
+        ParkingService[] services = new ParkingService[sites.size() + 1];
+        services[0] = parkingService;
+        int i = 1;
+        for (Site site : sites.values()) {
+            services[i++] = site.service;
+        }
+        return List.of(services);
     }
 
     private static void initializeSampleData() {
@@ -106,15 +248,15 @@ public class Main {
         Customer customer1 = new Customer("CUST-001", "customer1", "cust123", "Alice Johnson", "ABC-1234");
         Customer customer2 = new Customer("CUST-002", "customer2", "cust456", "Bob Smith", "XYZ-5678");
 
-        users.add(admin);
-        users.add(attendant);
-        users.add(customer1);
-        users.add(customer2);
+        userDirectory.register(admin);
+        userDirectory.register(attendant);
+        userDirectory.register(customer1);
+        userDirectory.register(customer2);
 
         // REQUIREMENT #11: Varargs - Log initialization
         logger.logWithContext("SYSTEM", "Sample data initialized", "4 users created");
 
-        dataStore.saveUsers(users);
+        dataStore.saveUsers(userDirectory.getAllUsers());
     }
 
     private static boolean loginMenu() {
@@ -149,14 +291,13 @@ public class Main {
         System.out.print("Enter password: ");
         String password = scanner.nextLine().trim();
 
-        for (User user : users) {
-            if (user.getUsername().equals(username) && user.authenticate(password)) {
-                currentUser = user;
-                // REQUIREMENT #11: Varargs - Log login event
-                logger.logEvents(Logger.LogLevel.SUCCESS, "User " + username + " logged in successfully");
-                System.out.println("Login successful! Welcome, " + user.getFullName());
-                return;
-            }
+        User user = userDirectory.authenticate(username, password);
+        if (user != null) {
+            currentUser = user;
+            // REQUIREMENT #11: Varargs - Log login event
+            logger.logEvents(Logger.LogLevel.SUCCESS, "User " + username + " logged in successfully");
+            System.out.println("Login successful! Welcome, " + user.getFullName());
+            return;
         }
 
         System.out.println("Invalid credentials. Please try again.");
@@ -167,11 +308,9 @@ public class Main {
         String username = scanner.nextLine().trim();
 
         // Check if username already exists
-        for (User user : users) {
-            if (user.getUsername().equals(username)) {
-                System.out.println("Username already exists. Please choose a different username.");
-                return;
-            }
+        if (userDirectory.isUsernameTaken(username)) {
+            System.out.println("Username already exists. Please choose a different username.");
+            return;
         }
 
         System.out.print("Enter password: ");
@@ -183,7 +322,11 @@ public class Main {
 
         String customerId = "CUST-" + UUID.randomUUID().toString().substring(0, 5).toUpperCase();
         Customer customer = new Customer(customerId, username, password, fullName, vehicleNumber);
-        users.add(customer);
+        if (!userDirectory.register(customer)) {
+            System.out.println("Username already exists. Please choose a different username.");
+            return;
+        }
+        dataStore.appendUser(customer);
 
         logger.log("New customer registered: " + username);
         System.out.println("Registration successful! You can now login.");
@@ -221,6 +364,12 @@ public class Main {
                     viewUsers();
                     break;
                 case "5":
+                    viewBookingHistory();
+                    break;
+                case "6":
+                    runBatchBilling();
+                    break;
+                case "7":
                     currentUser = null;
                     logger.log("User " + currentUser + " logged out");
                     System.out.println("Logged out successfully.");
@@ -253,6 +402,12 @@ public class Main {
                     viewSlotStatus();
                     break;
                 case "4":
+                    checkOutOnAccount();
+                    break;
+                case "5":
+                    confirmArrival();
+                    break;
+                case "6":
                     currentUser = null;
                     logger.log("Attendant logged out");
                     System.out.println("Logged out successfully.");
@@ -288,6 +443,12 @@ public class Main {
                     viewInvoice();
                     break;
                 case "5":
+                    reserveParkingSlot();
+                    break;
+                case "6":
+                    checkInReservation();
+                    break;
+                case "7":
                     currentUser = null;
                     logger.log("Customer " + currentUser + " logged out");
                     System.out.println("Logged out successfully.");
@@ -305,25 +466,45 @@ public class Main {
     // Admin Functions
     private static void manageSlots() {
         System.out.println("\n=== Manage Parking Slots ===");
-        System.out.println(parkingLot.toString());
-        System.out.println("\nAvailable slots: " + parkingLot.getMonitor().getAvailableSlots());
+        System.out.println(lotRegistry.toString());
+        for (ParkingLot lot : lotRegistry.getLots()) {
+            System.out.println("\n" + lot.toString());
+            System.out.println("Available slots: " + lot.getMonitor().getAvailableSlots());
+            printAvailabilityByType(lot);
+
+            lot.forEachSlot((number, type, occupied, vehicle, customer) ->
+                    System.out.println(ParkingLot.Slot.describe(number, type, occupied, vehicle)));
+        }
+    }
 
-        for (ParkingLot.Slot slot : parkingLot.getAllSlots()) {
-            System.out.println(slot);
+    // Per-type counts straight from the monitor's counters
+    private static void printAvailabilityByType(ParkingLot lot) {
+        ParkingLot.AvailabilityMonitor monitor = lot.getMonitor();
+        for (ParkingLot.SlotType type : lot.getSlotTypes()) {
+            System.out.println("  " + type + ": " + monitor.getAvailableSlots(type) + " / " + monitor.getTotalSlots(type));
         }
     }
 
     private static void viewReports() {
         System.out.println("\n=== System Reports ===");
 
+        // Every figure below is a running total, so the report costs the same at any history size
+        ParkingLot.AvailabilityMonitor monitor = parkingLot.getMonitor();
+        int busiestHour = reportAggregates.getBusiestHour();
+
         // REQUIREMENT #11: Varargs - Generate report with multiple data rows
         String parkingReport = report.generateReport("PARKING LOT STATUS REPORT",
                 "Total Slots: " + parkingLot.getTotalSlots(),
-                "Available Slots: " + parkingLot.getMonitor().getAvailableSlots(),
-                "Occupied Slots: " + parkingLot.getMonitor().getOccupiedSlots(),
-                "Occupancy Rate: " + String.format("%.2f", parkingLot.getMonitor().getOccupancyRate()) + "%",
-                "Total Bookings: " + bookings.size(),
-                "Total Payments Processed: " + payments.size()
+                "Available Slots: " + monitor.getAvailableSlots(),
+                "Occupied Slots: " + monitor.getOccupiedSlots(),
+                "Occupancy Rate: " + String.format("%.2f", monitor.getOccupancyRate()) + "%",
+                utilizationRow(ParkingLot.SlotType.STANDARD),
+                utilizationRow(ParkingLot.SlotType.COMPACT),
+                utilizationRow(ParkingLot.SlotType.HANDICAP),
+                "Busiest Hour: " + String.format("%02d:00 (%.1f slot-hours)",
+                        busiestHour, reportAggregates.getOccupiedHours(busiestHour)),
+                "Total Bookings: " + reportAggregates.getBookingCount(),
+                "Total Payments Processed: " + reportAggregates.getPaymentCount(Payment.Status.COMPLETED)
         );
 
         System.out.println(parkingReport);
@@ -331,14 +512,26 @@ public class Main {
         // REQUIREMENT #11: Varargs - Generate summary report with key-value pairs
         String summaryReport = report.generateSummaryReport("SYSTEM SUMMARY",
                 "System Status", "Operational",
-                "Total Users", String.valueOf(users.size()),
-                "Active Bookings", String.valueOf((int) bookings.stream().filter(b -> "ACTIVE".equals(b.getStatus())).count()),
-                "Completed Bookings", String.valueOf((int) bookings.stream().filter(b -> "COMPLETED".equals(b.getStatus())).count())
+                "Total Users", String.valueOf(userDirectory.size()),
+                "Active Bookings", String.valueOf(reportAggregates.getBookingCount(Booking.Status.ACTIVE)),
+                "Completed Bookings", String.valueOf(reportAggregates.getBookingCount(Booking.Status.COMPLETED)),
+                "Cancelled Bookings", String.valueOf(reportAggregates.getBookingCount(Booking.Status.CANCELLED)),
+                "Reserved Bookings", String.valueOf(reportAggregates.getBookingCount(Booking.Status.RESERVED)),
+                "Overstaying Vehicles", String.valueOf(expiryScheduler.getOverstays().size()),
+                "Revenue", String.format("Rs. %.2f", reportAggregates.getRevenue())
         );
 
         System.out.println(summaryReport);
     }
 
+    private static String utilizationRow(ParkingLot.SlotType type) {
+        ParkingLot.AvailabilityMonitor monitor = parkingLot.getMonitor();
+        return String.format("%s Utilization: %d/%d (%.2f%%), %,d bookings, %.1f slot-hours",
+                type, monitor.getOccupiedSlots(type), monitor.getTotalSlots(type),
+                reportAggregates.getUtilization(type), reportAggregates.getBookingCount(type),
+                reportAggregates.getOccupiedHours(type));
+    }
+
     private static void viewSystemLogs() {
         System.out.println("\n=== System Logs ===");
         String logs = logger.getLogs();
@@ -352,9 +545,42 @@ public class Main {
         System.out.println(dataStore.readLogs());
     }
 
+    private static void viewBookingHistory() {
+        System.out.println("\n=== Booking History ===");
+        DateTimeFormatter format = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+        try {
+            System.out.print("From (yyyy-MM-dd HH:mm): ");
+            LocalDateTime from = LocalDateTime.parse(scanner.nextLine().trim(), format);
+            System.out.print("To (yyyy-MM-dd HH:mm): ");
+            LocalDateTime to = LocalDateTime.parse(scanner.nextLine().trim(), format);
+            if (!to.isAfter(from)) {
+                System.out.println("The end of the window must be after its start.");
+                return;
+            }
+
+            List<Booking> overlapping = bookingTimeIndex.findOverlapping(from, to);
+            for (Booking booking : overlapping) {
+                System.out.println(booking.getBookingInfo());
+            }
+            System.out.println(overlapping.size() + " stay(s) overlapped the window");
+            System.out.println("Checked in during the window: " + bookingTimeIndex.findCheckedInBetween(from, to).size());
+            System.out.println("Occupied at " + from.format(format) + ": " + bookingTimeIndex.occupancyAt(from));
+            System.out.println("Peak occupancy in the window: " + bookingTimeIndex.peakOccupancy(from, to));
+        } catch (DateTimeParseException e) {
+            System.out.println("Invalid date/time: " + e.getParsedString());
+        }
+    }
+
+    private static void runBatchBilling() {
+        System.out.println("\n=== Batch Billing ===");
+        BatchBillingPipeline pipeline = new BatchBillingPipeline(bookingRepository, parkingLot,
+                parkingService.getTariff(), dataStore, logger);
+        System.out.println(pipeline.run());
+    }
+
     private static void viewUsers() {
         System.out.println("\n=== All Users ===");
-        for (User user : users) {
+        for (User user : userDirectory.getAllUsers()) {
             System.out.println(user);
         }
     }
@@ -366,31 +592,27 @@ public class Main {
         System.out.print("Enter customer ID: ");
         String customerId = scanner.nextLine().trim();
 
+        // The registry picks the least loaded lot and claims the slot; that lot's service records the stay
+        LotRegistry.Allocation allocation;
         try {
-            // REQUIREMENT #1: Static nested class - Slot usage (via allocateSlot)
-            ParkingLot.Slot slot = parkingLot.allocateSlot(vehicleNumber, customerId);
-
-            String bookingId = "BOOK-" + UUID.randomUUID().toString().substring(0, 5).toUpperCase();
-            Booking booking = new Booking(bookingId, customerId, slot.getSlotNumber(), vehicleNumber);
-            bookings.add(booking);
-
-            // REQUIREMENT #11: Varargs - Log check-in
-            logger.logEvents(Logger.LogLevel.SUCCESS,
-                    "Vehicle " + vehicleNumber + " checked in at slot " + slot.getSlotNumber(),
-                    "Booking ID: " + bookingId);
-
-            System.out.println("Vehicle checked in successfully!");
-            System.out.println("Slot: " + slot.getSlotNumber() + " (" + slot.getSlotType() + ")");
-            System.out.println("Booking ID: " + bookingId);
-
-            if (currentUser instanceof Attendant) {
-                ((Attendant) currentUser).incrementVehiclesProcessed();
-            }
-
+            allocation = lotRegistry.allocateLeastLoaded(vehicleNumber, customerId, null);
         } catch (NoAvailableSlotException e) {
-            // REQUIREMENT #7: Exception handling - NoAvailableSlotException
-            logger.logEvents(Logger.LogLevel.ERROR, "Check-in failed: " + e.getMessage());
+            logger.logEvents(Logger.LogLevel.ERROR, () -> "Check-in failed: " + e.getMessage());
             System.out.println("Check-in failed: " + e.getMessage());
+            return;
+        }
+        ParkingLot.Slot slot = allocation.getSlot();
+        ParkingService.Result<Booking> result = serviceForLot(allocation.getLotId())
+                .checkIn(slot, vehicleNumber, customerId);
+
+        Booking booking = result.getValue();
+        System.out.println(result.getMessage());
+        System.out.println("Lot: " + allocation.getLotId());
+        System.out.println("Slot: " + slot.getSlotNumber() + " (" + slot.getSlotType() + ")");
+        System.out.println("Booking ID: " + booking.getBookingId());
+
+        if (currentUser instanceof Attendant) {
+            ((Attendant) currentUser).incrementVehiclesProcessed();
         }
     }
 
@@ -398,194 +620,187 @@ public class Main {
         System.out.print("Enter booking ID: ");
         String bookingId = scanner.nextLine().trim();
 
-        Booking booking = null;
-        for (Booking b : bookings) {
-            if (b.getBookingId().equals(bookingId)) {
-                booking = b;
-                break;
-            }
-        }
-
-        if (booking == null) {
-            System.out.println("Booking not found.");
+        ParkingService.Result<Payment> result = serviceFor(bookingId).checkOut(bookingId);
+        if (!result.isSuccess()) {
+            System.out.println(result.getMessage());
             return;
         }
 
-        if (!"ACTIVE".equals(booking.getStatus())) {
-            System.out.println("Booking is not active.");
-            return;
-        }
-
-        try {
-            // REQUIREMENT #9: Method overloading - deallocateSlot with reason
-            booking.setCheckOutTime(LocalDateTime.now());
-            booking.setStatus("COMPLETED");
-
-            int hours = booking.calculateDuration();
-            if (hours == 0) hours = 1; // Minimum 1 hour charge
-
-            // REQUIREMENT #3: Implements Billing interface
-            Payment payment = new Payment("PAY-" + UUID.randomUUID().toString().substring(0, 5).toUpperCase(),
-                    bookingId, hours);
-
-            // REQUIREMENT #9: Method overloading - processPayment
-            boolean paid = payment.processPayment(payment.getAmount());
+        System.out.println(result.getMessage());
+        System.out.println(result.getValue().generateReceipt());
+    }
 
-            if (paid) {
-                payments.add(payment);
-                parkingLot.deallocateSlot(booking.getSlotNumber(), "Vehicle checked out");
+    private static void checkOutOnAccount() {
+        System.out.print("Enter booking ID: ");
+        String bookingId = scanner.nextLine().trim();
 
-                // REQUIREMENT #11: Varargs - Log checkout
-                logger.logEvents(Logger.LogLevel.SUCCESS,
-                        "Vehicle " + booking.getVehicleNumber() + " checked out from slot " + booking.getSlotNumber(),
-                        "Booking completed. Hours parked: " + hours);
+        ParkingService.Result<Booking> result = serviceFor(bookingId).checkOutOnAccount(bookingId);
+        System.out.println(result.getMessage());
+    }
 
-                System.out.println("Vehicle checked out successfully!");
-                System.out.println(payment.generateReceipt());
-            }
+    // A booked vehicle has reached its slot, so the booking no longer expires as a no-show
+    private static void confirmArrival() {
+        System.out.print("Enter booking ID: ");
+        String bookingId = scanner.nextLine().trim();
 
-        } catch (Exception e) {
-            logger.logEvents(Logger.LogLevel.ERROR, "Check-out failed: " + e.getMessage());
-            System.out.println("Check-out failed: " + e.getMessage());
-        }
+        ParkingService.Result<Booking> result = serviceFor(bookingId).recordArrival(bookingId);
+        System.out.println(result.getMessage());
     }
 
     private static void viewSlotStatus() {
         System.out.println("\n=== Slot Status ===");
-        for (ParkingLot.Slot slot : parkingLot.getAllSlots()) {
-            System.out.println(slot);
+        for (ParkingLot lot : lotRegistry.getLots()) {
+            System.out.println("\n--- " + lot.getParkingLotId() + " ---");
+            lot.forEachSlot((number, type, occupied, vehicle, customer) ->
+                    System.out.println(ParkingLot.Slot.describe(number, type, occupied, vehicle)));
+            System.out.println("Available: " + lot.getMonitor().getAvailableSlots() + " / " + lot.getTotalSlots());
+            printAvailabilityByType(lot);
         }
-        System.out.println("Available: " + parkingLot.getMonitor().getAvailableSlots() + " / " + parkingLot.getTotalSlots());
     }
 
     // Customer Functions
     private static void bookParkingSlot() {
-        try {
-            System.out.println("\n=== Book Parking Slot ===");
-            System.out.println("Available slots: " + parkingLot.getMonitor().getAvailableSlots());
+        System.out.println("\n=== Book Parking Slot ===");
+        System.out.println("Available slots: " + parkingLot.getMonitor().getAvailableSlots());
 
-            // REQUIREMENT #9: Method overloading - allocateSlot with type preference
-            System.out.print("Preferred slot type (Standard/Compact/Handicap) or press Enter for any: ");
-            String preferredType = scanner.nextLine().trim();
+        // REQUIREMENT #9: Method overloading - allocateSlot with type preference
+        System.out.print("Preferred slot type (Standard/Compact/Handicap) or press Enter for any: ");
+        String preferredType = scanner.nextLine().trim();
 
-            Customer customer = (Customer) currentUser;
-            ParkingLot.Slot slot;
+        Customer customer = (Customer) currentUser;
+        ParkingService.Result<Booking> result =
+                parkingService.book(customer.getVehicleNumber(), customer.getUserId(), preferredType);
+        if (!result.isSuccess()) {
+            System.out.println("Booking failed: " + result.getMessage());
+            return;
+        }
 
-            if (preferredType.isEmpty()) {
-                slot = parkingLot.allocateSlot(customer.getVehicleNumber(), customer.getUserId());
-            } else {
-                slot = parkingLot.allocateSlot(customer.getVehicleNumber(), customer.getUserId(), preferredType);
+        customer.incrementActiveBookings();
+        System.out.println(result.getMessage());
+        System.out.println(result.getValue().getBookingInfo(true));
+    }
+
+    private static void reserveParkingSlot() {
+        System.out.println("\n=== Reserve Parking Slot ===");
+        DateTimeFormatter format = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+        try {
+            System.out.print("Slot type (Standard/Compact/Handicap): ");
+            ParkingLot.SlotType slotType = ParkingLot.SlotType.parse(scanner.nextLine().trim());
+            if (slotType == null) {
+                System.out.println("Unknown slot type.");
+                return;
+            }
+            System.out.print("From (yyyy-MM-dd HH:mm): ");
+            LocalDateTime start = LocalDateTime.parse(scanner.nextLine().trim(), format);
+            System.out.print("To (yyyy-MM-dd HH:mm): ");
+            LocalDateTime end = LocalDateTime.parse(scanner.nextLine().trim(), format);
+
+            Customer customer = (Customer) currentUser;
+            ParkingService.Result<Booking> result = parkingService.reserve(customer.getVehicleNumber(),
+                    customer.getUserId(), slotType, start, end);
+            if (!result.isSuccess()) {
+                System.out.println("Reservation failed: " + result.getMessage());
+                return;
             }
 
-            String bookingId = "BOOK-" + UUID.randomUUID().toString().substring(0, 5).toUpperCase();
-            Booking booking = new Booking(bookingId, customer.getUserId(), slot.getSlotNumber(), customer.getVehicleNumber());
-            bookings.add(booking);
             customer.incrementActiveBookings();
+            System.out.println(result.getMessage());
+            System.out.println(result.getValue().getBookingInfo(true));
+        } catch (DateTimeParseException e) {
+            System.out.println("Invalid date/time: " + e.getParsedString());
+        }
+    }
 
-            logger.log("Booking created for customer " + customer.getUsername() + " - ID: " + bookingId);
-            System.out.println("Booking successful!");
-            System.out.println(booking.getBookingInfo(true));
+    private static void checkInReservation() {
+        System.out.print("Enter reservation ID: ");
+        String bookingId = scanner.nextLine().trim();
 
-        } catch (NoAvailableSlotException e) {
-            // REQUIREMENT #7: Exception handling - NoAvailableSlotException
-            logger.logEvents(Logger.LogLevel.ERROR, "Booking failed: " + e.getMessage());
-            System.out.println("Booking failed: " + e.getMessage());
+        Customer customer = (Customer) currentUser;
+        Booking booking = bookingRepository.findBooking(bookingId);
+        if (booking == null || !customer.getUserId().equals(booking.getCustomerId())) {
+            System.out.println("Check-in failed: No pending reservation with ID: " + bookingId);
+            return;
         }
+
+        ParkingService.Result<Booking> result = parkingService.checkInReservation(bookingId);
+        if (!result.isSuccess()) {
+            System.out.println("Check-in failed: " + result.getMessage());
+            return;
+        }
+        System.out.println(result.getMessage());
+        System.out.println(result.getValue().getBookingInfo(true));
     }
 
     private static void viewMyBookings() {
         Customer customer = (Customer) currentUser;
         System.out.println("\n=== My Bookings ===");
 
-        List<Booking> myBookings = new ArrayList<>();
-        for (Booking b : bookings) {
-            if (b.getCustomerId().equals(customer.getUserId())) {
-                myBookings.add(b);
+        // Walk-in stays at the other lots are listed after the home lot's bookings
+        ParkingService.Result<List<Booking>> result = parkingService.bookings(customer.getUserId());
+        boolean found = false;
+        for (ParkingService service : allServices()) {
+            for (Booking booking : service.bookings(customer.getUserId()).getValue()) {
+                System.out.println(booking.getBookingInfo(true));
+                System.out.println("---");
+                found = true;
             }
         }
-
-        if (myBookings.isEmpty()) {
-            System.out.println("No bookings found.");
-            return;
-        }
-
-        for (Booking booking : myBookings) {
-            System.out.println(booking.getBookingInfo(true));
-            System.out.println("---");
+        if (!found) {
+            System.out.println(result.getMessage());
         }
     }
 
     private static void cancelBooking() {
-        try {
-            System.out.print("Enter booking ID to cancel: ");
-            String bookingId = scanner.nextLine().trim();
-
-            Booking booking = null;
-            for (Booking b : bookings) {
-                if (b.getBookingId().equals(bookingId)) {
-                    booking = b;
-                    break;
-                }
-            }
-
-            if (booking == null) {
-                throw new InvalidBookingException("Booking not found with ID: " + bookingId);
-            }
-
-            if (!"ACTIVE".equals(booking.getStatus())) {
-                throw new InvalidBookingException("Only active bookings can be cancelled.");
-            }
-
-            booking.setStatus("CANCELLED");
-            parkingLot.deallocateSlot(booking.getSlotNumber(), "Booking cancelled by customer");
-            Customer customer = (Customer) currentUser;
-            customer.decrementActiveBookings();
-
-            // REQUIREMENT #11: Varargs - Log cancellation
-            logger.logEvents(Logger.LogLevel.SUCCESS,
-                    "Booking " + bookingId + " cancelled",
-                    "Customer: " + customer.getUsername());
-
-            System.out.println("Booking cancelled successfully.");
+        System.out.print("Enter booking ID to cancel: ");
+        String bookingId = scanner.nextLine().trim();
 
-        } catch (InvalidBookingException e) {
-            // REQUIREMENT #7: Exception handling - InvalidBookingException
-            logger.logEvents(Logger.LogLevel.ERROR, "Cancellation failed: " + e.getMessage());
-            System.out.println("Cancellation failed: " + e.getMessage());
+        Customer customer = (Customer) currentUser;
+        ParkingService.Result<Booking> result = serviceFor(bookingId).cancel(bookingId, customer.getUserId());
+        if (!result.isSuccess()) {
+            System.out.println("Cancellation failed: " + result.getMessage());
+            return;
         }
+
+        customer.decrementActiveBookings();
+        System.out.println(result.getMessage());
     }
 
     private static void viewInvoice() {
         Customer customer = (Customer) currentUser;
         System.out.println("\n=== My Invoices ===");
 
-        List<Payment> myPayments = new ArrayList<>();
-        for (Payment p : payments) {
-            // Find booking for this payment
-            for (Booking b : bookings) {
-                if (b.getBookingId().equals(p.getBookingId()) && b.getCustomerId().equals(customer.getUserId())) {
-                    myPayments.add(p);
-                    break;
-                }
+        ParkingService.Result<List<Payment>> result = parkingService.invoice(customer.getUserId());
+        boolean found = false;
+        for (ParkingService service : allServices()) {
+            for (Payment payment : service.invoice(customer.getUserId()).getValue()) {
+                System.out.println(payment.generateReceipt());
+                System.out.println();
+                found = true;
             }
         }
-
-        if (myPayments.isEmpty()) {
-            System.out.println("No invoices found.");
-            return;
-        }
-
-        for (Payment payment : myPayments) {
-            System.out.println(payment.generateReceipt());
-            System.out.println();
+        if (!found) {
+            System.out.println(result.getMessage());
         }
     }
 
     private static void saveAllData() {
         System.out.println("\nSaving system data...");
-        dataStore.saveUsers(users);
-        dataStore.saveBookings(bookings);
-        dataStore.savePayments(payments);
+        // Fold the journal into fresh snapshot files
+        if (binaryStore == null) {
+            dataStore.compact(userDirectory.getAllUsers(), bookingRepository.getAllBookings(),
+                    bookingRepository.getAllPayments());
+        } else if (binaryStore.saveBookings(bookingRepository.getAllBookings())
+                && binaryStore.savePayments(bookingRepository.getAllPayments())) {
+            dataStore.compact(userDirectory.getAllUsers(), null, null);
+        } else {
+            // The journal still holds every change since the last binary snapshot
+            System.err.println("Error saving binary data: changes are kept in the journal");
+        }
+        for (Site site : sites.values()) {
+            BookingRepository repository = site.service.getBookingRepository();
+            site.dataStore.compact(Collections.emptyList(), repository.getAllBookings(), repository.getAllPayments());
+            site.dataStore.close();
+        }
 
         // REQUIREMENT #11: Varargs - Log multiple shutdown events
         logger.logMultiple(
@@ -595,6 +810,7 @@ public class Main {
         );
 
         dataStore.logEvent("System shutdown - All data persisted");
+        dataStore.close();
         System.out.println("All data saved successfully.");
     }
 }
@@ -9,19 +9,51 @@
 package com.smartpark;
 
 import com.smartpark.exceptions.NoAvailableSlotException;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /**
  * REQUIREMENT #1: Nested classes - static Slot class and non-static inner AvailabilityMonitor.
  * REQUIREMENT #1: Nested interface - Metrics interface.
  * REQUIREMENT #9: Method overloading for slot operations.
+ *
+ * Slot state lives in a SlotStore (parallel primitive arrays); Slot objects are
+ * small views created on demand, so a lot costs about 9 bytes per slot.
+ *
+ * Read paths do not copy the lot: getAllSlots() is a read-only live view,
+ * forEachSlot() hands each slot's fields to a SlotVisitor without creating any
+ * objects, and availableSlotNumbers()/slotNumbers() iterate slot numbers as
+ * primitives. Counts per type come from the monitor's counters.
+ *
+ * Slot types are the SlotType enum. Its ordinal is the type code held in the
+ * store, so per-type bitmaps and counters are plain arrays. Type-preferred
+ * allocation and type filters compare small ints instead of strings. The String
+ * overloads parse a name once at the boundary.
  */
 public class ParkingLot {
+    public static final int DEFAULT_LOG_CAPACITY = 1024;
+
     private String parkingLotId;
     private int totalSlots;
-    private List<Slot> slots;
+    private SlotStore store;         // types, occupancy, occupants and available counts
+    private Set<SlotType> slotTypes; // types present in this lot
     private AvailabilityMonitor monitor;
+    private List<Slot> allSlots;  // read-only view handed out by getAllSlots()
+    private boolean concurrent;  // gate threads start their search in separate stripes
+    private volatile SlotHold slotHold;  // null when nothing is held back
 
     // REQUIREMENT #1: Nested interface (Metrics)
     public interface Metrics {
@@ -31,68 +63,298 @@ public class ParkingLot {
         double getOccupancyRate();
     }
 
+    // REQUIREMENT #1: Nested enum (SlotType) - the label is the display and legacy name,
+    // the one-letter code is the compact form used for persistence.
+    public enum SlotType {
+        STANDARD("Standard", 'S'),
+        COMPACT("Compact", 'C'),
+        HANDICAP("Handicap", 'H');
+
+        private static final SlotType[] VALUES = values();
+
+        private final String label;
+        private final char code;
+
+        SlotType(String label, char code) {
+            this.label = label;
+            this.code = code;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public char getCode() {
+            return code;
+        }
+
+        // Type with the given code or label (any case) or constant name; null if none matches
+        public static SlotType parse(String value) {
+            if (value == null) {
+                return null;
+            }
+            String trimmed = value.trim();
+            for (SlotType type : VALUES) {
+                if (trimmed.length() == 1 ? Character.toUpperCase(trimmed.charAt(0)) == type.code
+                        : type.label.equalsIgnoreCase(trimmed)) {
+                    return type;
+                }
+            }
+            return null;
+        }
+
+        static SlotType ofCode(int typeCode) {
+            return VALUES[typeCode];
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    // REQUIREMENT #1: Nested interface (SlotVisitor) - receives one slot's fields per
+    // call; vehicleNumber and occupiedBy are "" for a free slot.
+    public interface SlotVisitor {
+        void visit(int slotNumber, SlotType slotType, boolean occupied, String vehicleNumber, String occupiedBy);
+    }
+
+    // REQUIREMENT #1: Nested interface (SlotHold) - lets a reservation calendar keep free
+    // slots back from walk-in allocation; allocating a specific slot number ignores it.
+    public interface SlotHold {
+        boolean isHeld(int slotNumber);
+    }
+
     // REQUIREMENT #1: Static nested class - Slot
+    // A flyweight view of one position in a SlotStore; it holds no slot state itself,
+    // so any number of views of the same slot always agree.
     public static class Slot {
-        private int slotNumber;
-        private String slotType;  // Standard, Compact, Handicap
-        private boolean isOccupied;
-        private String vehicleNumber;
-        private String occupiedBy;  // User ID
+        private final SlotStore store;
+        private final int index;
+        private final int slotNumber;
 
+        // A standalone slot, backed by its own one-slot store; unknown type names mean Standard
         public Slot(int slotNumber, String slotType) {
+            this(slotNumber, standardIfUnknown(SlotType.parse(slotType)));
+        }
+
+        public Slot(int slotNumber, SlotType slotType) {
+            this(new SlotStore(SlotType.VALUES.length, new byte[] {(byte) slotType.ordinal()}), 0, slotNumber);
+        }
+
+        private static SlotType standardIfUnknown(SlotType type) {
+            return type != null ? type : SlotType.STANDARD;
+        }
+
+        Slot(SlotStore store, int index, int slotNumber) {
+            this.store = store;
+            this.index = index;
             this.slotNumber = slotNumber;
-            this.slotType = slotType;
-            this.isOccupied = false;
-            this.vehicleNumber = "";
-            this.occupiedBy = "";
         }
 
         public int getSlotNumber() {
             return slotNumber;
         }
 
+        // The type's label ("Standard", "Compact" or "Handicap"), as slots have always reported it
         public String getSlotType() {
-            return slotType;
+            return getType().getLabel();
+        }
+
+        public SlotType getType() {
+            return SlotType.ofCode(store.typeCodeAt(index));
         }
 
         public boolean isOccupied() {
-            return isOccupied;
+            return store.isOccupied(index);
         }
 
+        // Goes through the store so occupancy and available counts stay consistent;
+        // the lot's availability log is only written by allocateSlot/deallocateSlot.
         public void setOccupied(boolean occupied, String vehicleNumber, String occupiedBy) {
-            this.isOccupied = occupied;
-            this.vehicleNumber = occupied ? vehicleNumber : "";
-            this.occupiedBy = occupied ? occupiedBy : "";
+            if (!occupied) {
+                store.vacate(index);
+            } else if (!store.occupy(index, vehicleNumber, occupiedBy)) {
+                store.setOccupant(index, vehicleNumber, occupiedBy);
+            }
         }
 
         public String getVehicleNumber() {
-            return vehicleNumber;
+            return store.vehicleAt(index);
         }
 
         public String getOccupiedBy() {
-            return occupiedBy;
+            return store.customerAt(index);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Slot)) {
+                return false;
+            }
+            Slot slot = (Slot) other;
+            return store == slot.store && index == slot.index;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(store) * 31 + index;
         }
 
         @Override
         public String toString() {
+            return describe(slotNumber, getType(), isOccupied(), getVehicleNumber());
+        }
+
+        // The toString() text, for callers that walk slots with a SlotVisitor
+        public static String describe(int slotNumber, SlotType slotType, boolean occupied, String vehicleNumber) {
             return String.format("Slot %d (%s) - %s | Vehicle: %s",
-                    slotNumber, slotType, isOccupied ? "OCCUPIED" : "AVAILABLE", vehicleNumber);
+                    slotNumber, slotType, occupied ? "OCCUPIED" : "AVAILABLE", vehicleNumber);
+        }
+    }
+
+    // Read-only live view of every slot; elements are created on access and never copied
+    private class SlotListView extends AbstractList<Slot> implements RandomAccess {
+        @Override
+        public Slot get(int index) {
+            if (index < 0 || index >= totalSlots) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + totalSlots);
+            }
+            return new Slot(store, index, index + 1);
+        }
+
+        @Override
+        public int size() {
+            return totalSlots;
+        }
+    }
+
+    // Slot numbers of free slots (any type, or one type) in ascending order, read from the bitmaps
+    private class FreeSlotIterator implements PrimitiveIterator.OfInt {
+        private final int type;  // -1 for any type
+        private int next;
+
+        FreeSlotIterator(int type) {
+            this.type = type;
+            this.next = advance(0);
+        }
+
+        private int advance(int from) {
+            if (from >= totalSlots) {
+                return -1;
+            }
+            return type < 0 ? store.nextFree(from) : store.nextFree(type, from);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next >= 0;
+        }
+
+        @Override
+        public int nextInt() {
+            if (next < 0) {
+                throw new NoSuchElementException();
+            }
+            int index = next;
+            next = advance(index + 1);
+            return index + 1;
+        }
+    }
+
+    // Slot numbers of every slot of one type in ascending order
+    private class TypeSlotIterator implements PrimitiveIterator.OfInt {
+        private final int type;
+        private int next;
+
+        TypeSlotIterator(int type) {
+            this.type = type;
+            this.next = advance(0);
+        }
+
+        private int advance(int from) {
+            for (int i = from; type >= 0 && i < totalSlots; i++) {
+                if (store.typeCodeAt(i) == type) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next >= 0;
+        }
+
+        @Override
+        public int nextInt() {
+            if (next < 0) {
+                throw new NoSuchElementException();
+            }
+            int index = next;
+            next = advance(index + 1);
+            return index + 1;
         }
     }
 
-    // REQUIREMENT #1: Non-static inner class - AvailabilityMonitor
     public class AvailabilityMonitor implements Metrics {
-        private List<String> availabilityLog;
+        // Fixed-size ring of (timestamp, available) samples; the hot path writes two
+        // primitives and a sequence number, formatting only happens on read. Writers whose
+        // sequences are capacity apart share a cell, so a writer claims its cell by CAS on the
+        // cell's sequence, replacing it with a negative writing mark, and publishes its own
+        // sequence when done; a writer that finds a newer sample already there drops its own.
+        // Readers re-check the sequence after copying (a seqlock), so a sample overwritten
+        // mid-read is skipped, never torn.
+        private final long[] sampleTimes;
+        private final int[] sampleAvailable;
+        private final AtomicLongArray sampleSeq;  // sequence of each cell's sample, -1 if none, writing(seq) while written
+        private final AtomicLong nextSeq;
 
         public AvailabilityMonitor() {
-            this.availabilityLog = new ArrayList<>();
+            this(DEFAULT_LOG_CAPACITY);
+        }
+
+        public AvailabilityMonitor(int capacity) {
+            if (capacity <= 0) {
+                throw new IllegalArgumentException("Log capacity must be positive: " + capacity);
+            }
+            this.sampleTimes = new long[capacity];
+            this.sampleAvailable = new int[capacity];
+            this.sampleSeq = new AtomicLongArray(capacity);
+            for (int i = 0; i < capacity; i++) {
+                sampleSeq.set(i, -1);
+            }
+            this.nextSeq = new AtomicLong();
             logAvailability();
         }
 
         public void logAvailability() {
-            String logEntry = String.format("[%s] Available slots: %d/%d",
-                    java.time.LocalDateTime.now(), getAvailableSlots(), totalSlots);
-            availabilityLog.add(logEntry);
+            long seq = nextSeq.getAndIncrement();
+            int cell = (int) (seq % sampleTimes.length);
+            if (!claim(cell, seq)) {
+                return;  // lapped: a newer sample already owns the cell
+            }
+            VarHandle.storeStoreFence();  // the writing mark is visible before the fields change
+            sampleTimes[cell] = System.currentTimeMillis();
+            sampleAvailable[cell] = getAvailableSlots();
+            sampleSeq.set(cell, seq);  // volatile write publishes the sample
+        }
+
+        // Takes the cell for seq; false if a newer sample owns it. An older writer still
+        // in the cell is waited out, as it only has two stores left to make.
+        private boolean claim(int cell, long seq) {
+            while (true) {
+                long current = sampleSeq.get(cell);
+                long owner = current < -1 ? writing(current) : current;
+                if (owner >= seq) {
+                    return false;
+                }
+                if (current < -1) {
+                    Thread.yield();
+                } else if (sampleSeq.compareAndSet(cell, current, writing(seq))) {
+                    return true;
+                }
+            }
         }
 
         @Override
@@ -102,13 +364,31 @@ public class ParkingLot {
 
         @Override
         public int getAvailableSlots() {
-            int available = 0;
-            for (Slot slot : slots) {
-                if (!slot.isOccupied()) {
-                    available++;
-                }
-            }
-            return available;
+            return store.available();
+        }
+
+        public int getAvailableSlots(SlotType slotType) {
+            return slotType != null ? store.available(slotType.ordinal()) : 0;
+        }
+
+        public int getAvailableSlots(String slotType) {
+            return getAvailableSlots(SlotType.parse(slotType));
+        }
+
+        public int getOccupiedSlots(SlotType slotType) {
+            return getTotalSlots(slotType) - getAvailableSlots(slotType);
+        }
+
+        public int getOccupiedSlots(String slotType) {
+            return getOccupiedSlots(SlotType.parse(slotType));
+        }
+
+        public int getTotalSlots(SlotType slotType) {
+            return slotType != null ? store.total(slotType.ordinal()) : 0;
+        }
+
+        public int getTotalSlots(String slotType) {
+            return getTotalSlots(SlotType.parse(slotType));
         }
 
         @Override
@@ -123,50 +403,160 @@ public class ParkingLot {
         }
 
         public List<String> getAvailabilityLog() {
-            return new ArrayList<>(availabilityLog);
+            long end = nextSeq.get();
+            long begin = Math.max(0, end - sampleTimes.length);
+            List<String> log = new ArrayList<>((int) (end - begin));
+            ZoneId zone = ZoneId.systemDefault();
+            for (long seq = begin; seq < end; seq++) {
+                int cell = (int) (seq % sampleTimes.length);
+                if (sampleSeq.get(cell) != seq) {
+                    continue;  // not yet written, or already overwritten
+                }
+                long time = sampleTimes[cell];
+                int available = sampleAvailable[cell];
+                VarHandle.loadLoadFence();  // the fields are read before the check below
+                if (sampleSeq.get(cell) != seq) {
+                    continue;  // overwritten while being copied
+                }
+                log.add(String.format("[%s] Available slots: %d/%d",
+                        LocalDateTime.ofInstant(Instant.ofEpochMilli(time), zone), available, totalSlots));
+            }
+            return log;
+        }
+
+        public int getLogCapacity() {
+            return sampleTimes.length;
+        }
+
+        // The mark a writer leaves in its cell, below -1 so it never matches a sequence or
+        // the empty value; applying it twice gives the sequence back
+        private long writing(long value) {
+            return -2 - value;
         }
     }
 
     // Constructor
     public ParkingLot(String parkingLotId, int totalSlots) {
+        this(parkingLotId, totalSlots, false);
+    }
+
+    // REQUIREMENT #10: Constructor overloading - concurrent mode for multi-gate check-in.
+    // Allocation is always thread-safe (slots are claimed by CAS on the free-slot bitmap);
+    // concurrent mode additionally spreads gate threads across the lot, so the
+    // lowest-free-slot-first order is only kept per thread.
+    public ParkingLot(String parkingLotId, int totalSlots, boolean concurrent) {
+        this(parkingLotId, totalSlots, concurrent, DEFAULT_LOG_CAPACITY);
+    }
+
+    // REQUIREMENT #10: Constructor overloading - with availability log capacity
+    public ParkingLot(String parkingLotId, int totalSlots, boolean concurrent, int logCapacity) {
         this.parkingLotId = parkingLotId;
+        this.concurrent = concurrent;
         this.totalSlots = totalSlots;
-        this.slots = new ArrayList<>();
-        this.monitor = new AvailabilityMonitor();
 
         // Initialize slots
+        Set<SlotType> present = EnumSet.noneOf(SlotType.class);
+        byte[] typeCodes = new byte[totalSlots];
         for (int i = 1; i <= totalSlots; i++) {
-            String type;
+            SlotType type;
             if (i % 10 == 0) {
-                type = "Handicap";
+                type = SlotType.HANDICAP;
             } else if (i % 5 == 0) {
-                type = "Compact";
+                type = SlotType.COMPACT;
             } else {
-                type = "Standard";
+                type = SlotType.STANDARD;
             }
-            slots.add(new Slot(i, type));
+            present.add(type);
+            typeCodes[i - 1] = (byte) type.ordinal();
         }
+        this.store = new SlotStore(SlotType.VALUES.length, typeCodes);
+        this.slotTypes = Collections.unmodifiableSet(present);
+
+        this.monitor = new AvailabilityMonitor(logCapacity);
+        this.allSlots = new SlotListView();
     }
 
-    // REQUIREMENT #9: Method overloading (Case 1 - allocate slot with minimal info)
-    public Slot allocateSlot(String vehicleNumber, String customerId) throws NoAvailableSlotException {
-        for (Slot slot : slots) {
-            if (!slot.isOccupied()) {
-                slot.setOccupied(true, vehicleNumber, customerId);
-                monitor.logAvailability();
+    // Lowest free slot index at or after 'from' across all types, or -1 if none
+    private int findFreeSlot(int from) {
+        return store.nextFree(from);
+    }
+
+    // Slot 1 normally; in concurrent mode each gate thread starts in its own 64-slot
+    // stripe so that threads do not all CAS the same bitmap word.
+    private int searchStart() {
+        if (!concurrent) {
+            return 0;
+        }
+        int stripes = (totalSlots + 63) >>> 6;
+        return Math.floorMod(Long.hashCode(Thread.currentThread().getId() * 0x9E3779B97F4A7C15L), stripes) << 6;
+    }
+
+    // Claims the slot at 'index' if it is still free; null if another caller won it
+    private Slot tryOccupy(int index, String vehicleNumber, String customerId) {
+        if (!store.occupy(index, vehicleNumber, customerId)) {
+            return null;
+        }
+        monitor.logAvailability();
+        return new Slot(store, index, index + 1);
+    }
+
+    // Claims the first free slot (of one type, or any type for -1) from the search start,
+    // wrapping round once and skipping slots the hold keeps back; null if there is none
+    Slot claimFree(int type, String vehicleNumber, String customerId) {
+        SlotHold currentHold = slotHold;
+        int start = searchStart();
+        int from = start;
+        boolean wrapped = false;
+        while (true) {
+            int index = type < 0 ? findFreeSlot(from) : store.nextFree(type, from);
+            if (wrapped && index >= start) {
+                index = -1;  // back where the search began
+            }
+            if (index < 0) {
+                if (wrapped || start == 0) {
+                    return null;
+                }
+                wrapped = true;
+                from = 0;
+                continue;
+            }
+            if (currentHold != null && currentHold.isHeld(index + 1)) {
+                from = index + 1;
+                continue;
+            }
+            Slot slot = tryOccupy(index, vehicleNumber, customerId);
+            if (slot != null) {
                 return slot;
             }
+            from = index;  // lost the race; the bit is clear now, so move on from here
         }
-        throw new NoAvailableSlotException("No available slots in the parking lot!");
+    }
+
+    // Lowest free slot index of the type at or after 'from', or -1; a candidate, not a claim
+    int nextFreeSlot(SlotType type, int from) {
+        return store.nextFree(type.ordinal(), from);
+    }
+
+    // REQUIREMENT #9: Method overloading (Case 1 - allocate slot with minimal info)
+    public Slot allocateSlot(String vehicleNumber, String customerId) throws NoAvailableSlotException {
+        Slot slot = claimFree(-1, vehicleNumber, customerId);
+        if (slot == null) {
+            throw new NoAvailableSlotException("No available slots in the parking lot!");
+        }
+        return slot;
     }
 
     // REQUIREMENT #9: Method overloading (Case 2 - allocate slot with specific type preference)
     public Slot allocateSlot(String vehicleNumber, String customerId, String preferredType) throws NoAvailableSlotException {
+        return allocateSlot(vehicleNumber, customerId, SlotType.parse(preferredType));
+    }
+
+    // Slot type preference as an enum; null means any type
+    public Slot allocateSlot(String vehicleNumber, String customerId, SlotType preferredType) throws NoAvailableSlotException {
         // First try to find preferred type
-        for (Slot slot : slots) {
-            if (!slot.isOccupied() && slot.getSlotType().equals(preferredType)) {
-                slot.setOccupied(true, vehicleNumber, customerId);
-                monitor.logAvailability();
+        if (preferredType != null) {
+            Slot slot = claimFree(preferredType.ordinal(), vehicleNumber, customerId);
+            if (slot != null) {
                 return slot;
             }
         }
@@ -181,20 +571,16 @@ public class ParkingLot {
             throw new NoAvailableSlotException("Invalid slot number: " + slotNumber);
         }
 
-        Slot slot = slots.get(slotNumber - 1);
-        if (slot.isOccupied()) {
+        Slot slot = tryOccupy(slotNumber - 1, vehicleNumber, customerId);
+        if (slot == null) {
             throw new NoAvailableSlotException("Slot " + slotNumber + " is already occupied!");
         }
-
-        slot.setOccupied(true, vehicleNumber, customerId);
-        monitor.logAvailability();
         return slot;
     }
 
     // REQUIREMENT #9: Method overloading (Case 4 - deallocate slot with minimal info)
     public void deallocateSlot(int slotNumber) {
-        if (slotNumber >= 1 && slotNumber <= totalSlots) {
-            slots.get(slotNumber - 1).setOccupied(false, "", "");
+        if (slotNumber >= 1 && slotNumber <= totalSlots && store.vacate(slotNumber - 1)) {
             monitor.logAvailability();
         }
     }
@@ -207,35 +593,107 @@ public class ParkingLot {
 
     public Slot getSlot(int slotNumber) {
         if (slotNumber >= 1 && slotNumber <= totalSlots) {
-            return slots.get(slotNumber - 1);
+            return new Slot(store, slotNumber - 1, slotNumber);
         }
         return null;
     }
 
+    // Type of a slot without creating a Slot view; null for a number outside the lot
+    public SlotType getSlotType(int slotNumber) {
+        if (slotNumber >= 1 && slotNumber <= totalSlots) {
+            return SlotType.ofCode(store.typeCodeAt(slotNumber - 1));
+        }
+        return null;
+    }
+
+    // Whether a slot is taken, without creating a Slot view; false for a number outside the lot
+    public boolean isOccupied(int slotNumber) {
+        return slotNumber >= 1 && slotNumber <= totalSlots && store.isOccupied(slotNumber - 1);
+    }
+
+    // Read-only view backed by the lot; it reflects later allocations and costs nothing to obtain
     public List<Slot> getAllSlots() {
-        return new ArrayList<>(slots);
+        return allSlots;
     }
 
+    // Snapshot of the slots free right now; availableSlotNumbers() walks them without a list
     public List<Slot> getAvailableSlots() {
-        List<Slot> available = new ArrayList<>();
-        for (Slot slot : slots) {
-            if (!slot.isOccupied()) {
-                available.add(slot);
-            }
+        List<Slot> available = new ArrayList<>(store.available());
+        for (int i = store.nextFree(0); i >= 0; i = store.nextFree(i + 1)) {
+            available.add(new Slot(store, i, i + 1));
         }
         return available;
     }
 
+    // Snapshot of one type's slots; slotNumbers(type) walks them without a list
     public List<Slot> getSlotsByType(String type) {
-        List<Slot> filtered = new ArrayList<>();
-        for (Slot slot : slots) {
-            if (slot.getSlotType().equals(type)) {
-                filtered.add(slot);
+        return getSlotsByType(SlotType.parse(type));
+    }
+
+    public List<Slot> getSlotsByType(SlotType type) {
+        List<Slot> filtered = new ArrayList<>(type != null ? store.total(type.ordinal()) : 0);
+        int code = typeCode(type);
+        for (int i = 0; code >= 0 && i < totalSlots; i++) {
+            if (store.typeCodeAt(i) == code) {
+                filtered.add(new Slot(store, i, i + 1));
             }
         }
         return filtered;
     }
 
+    // REQUIREMENT #9: Method overloading (Case 6 - visit every slot)
+    // Walks the store directly; no Slot objects or lists are created. Slots that change
+    // during the walk may be seen before or after the change.
+    public void forEachSlot(SlotVisitor visitor) {
+        for (int i = 0; i < totalSlots; i++) {
+            visit(i, visitor);
+        }
+    }
+
+    // REQUIREMENT #9: Method overloading (Case 7 - visit the slots of one type)
+    public void forEachSlot(SlotType type, SlotVisitor visitor) {
+        int code = typeCode(type);
+        for (int i = 0; code >= 0 && i < totalSlots; i++) {
+            if (store.typeCodeAt(i) == code) {
+                visit(i, visitor);
+            }
+        }
+    }
+
+    // Visits free slots only, skipping occupied ones a bitmap word at a time
+    public void forEachAvailableSlot(SlotVisitor visitor) {
+        for (int i = store.nextFree(0); i >= 0; i = i + 1 < totalSlots ? store.nextFree(i + 1) : -1) {
+            visit(i, visitor);
+        }
+    }
+
+    private void visit(int index, SlotVisitor visitor) {
+        boolean occupied = store.isOccupied(index);
+        visitor.visit(index + 1, SlotType.ofCode(store.typeCodeAt(index)), occupied,
+                occupied ? store.vehicleAt(index) : "", occupied ? store.customerAt(index) : "");
+    }
+
+    // REQUIREMENT #9: Method overloading (Case 8 - free slot numbers of any type)
+    public PrimitiveIterator.OfInt availableSlotNumbers() {
+        return new FreeSlotIterator(-1);
+    }
+
+    // REQUIREMENT #9: Method overloading (Case 9 - free slot numbers of one type)
+    public PrimitiveIterator.OfInt availableSlotNumbers(SlotType type) {
+        int code = typeCode(type);
+        return code >= 0 ? new FreeSlotIterator(code) : new TypeSlotIterator(-1);  // no type: empty
+    }
+
+    // Numbers of every slot of one type, free or not
+    public PrimitiveIterator.OfInt slotNumbers(SlotType type) {
+        return new TypeSlotIterator(typeCode(type));
+    }
+
+    // Store type code for a type, or -1 for null
+    private static int typeCode(SlotType type) {
+        return type != null ? type.ordinal() : -1;
+    }
+
     public AvailabilityMonitor getMonitor() {
         return monitor;
     }
@@ -248,9 +706,24 @@ public class ParkingLot {
         return totalSlots;
     }
 
+    // Walk-in allocation skips slots this hold reports as held; null removes it
+    public void setSlotHold(SlotHold slotHold) {
+        this.slotHold = slotHold;
+    }
+
+    public boolean isConcurrent() {
+        return concurrent;
+    }
+
+    // Slot types present in this lot, in declaration order
+    public Set<SlotType> getSlotTypes() {
+        return slotTypes;
+    }
+
     @Override
     public String toString() {
+        int available = monitor.getAvailableSlots();
         return String.format("ParkingLot{id='%s', totalSlots=%d, available=%d, occupied=%d}",
-                parkingLotId, totalSlots, monitor.getAvailableSlots(), monitor.getOccupiedSlots());
+                parkingLotId, totalSlots, available, totalSlots - available);
     }
 }
@@ -0,0 +1,542 @@
+/*
+ * File: ParkingService.java
+ * Package: com.smartpark
+ * Purpose: Console-free API for check-in, check-out, booking, cancellation and invoices
+ * Requirements: #7 (Exception handling), #9 (Method overloading)
+ */
+
+package com.smartpark;
+
+import com.smartpark.exceptions.InvalidBookingException;
+import com.smartpark.exceptions.NoAvailableSlotException;
+import com.smartpark.io.DataStore;
+import com.smartpark.utils.Logger;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+/**
+ * The parking operations behind the console menus, as plain method calls. Every
+ * operation returns a {@link Result} instead of printing, so the same code can serve
+ * Main, a network endpoint, a batch job or a load generator.
+ *
+ * Safe to call from many threads at once when the ParkingLot was built in
+ * concurrent mode: slots are claimed through the lot's lock-free allocator, and each
+ * booking leaves the ACTIVE state through a compare-and-set on the repository, so a
+ * booking is checked out or cancelled at most once. When a DataStore is given, every
+ * change is appended to its journal. When a ReservationEngine is given, customers can
+ * also reserve a slot type for a future window and check in against the reservation.
+ */
+public class ParkingService {
+    private final ParkingLot parkingLot;
+    private final BookingRepository bookingRepository;
+    private final DataStore dataStore;  // null to skip journaling
+    private final ReservationEngine reservationEngine;  // null when reservations are off
+    // Window start of each checked-in reservation, as its check-in time becomes the arrival.
+    // Not persisted: like the windows themselves, only pending reservations are restored.
+    private final Map<Booking, LocalDateTime> windowStarts = new ConcurrentHashMap<>();
+    private volatile TariffEngine tariff = TariffEngine.FLAT;
+    private final Logger logger;
+
+    /**
+     * Outcome of a service call: the value on success, or the reason for failure.
+     * The message is meant for the user either way.
+     */
+    public static final class Result<T> {
+        private final boolean success;
+        private final T value;
+        private final String message;
+
+        private Result(boolean success, T value, String message) {
+            this.success = success;
+            this.value = value;
+            this.message = message;
+        }
+
+        public static <T> Result<T> ok(T value, String message) {
+            return new Result<>(true, value, message);
+        }
+
+        public static <T> Result<T> failure(String message) {
+            return new Result<>(false, null, message);
+        }
+
+        public boolean isSuccess() {
+            return success;
+        }
+
+        public T getValue() {
+            return value;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        @Override
+        public String toString() {
+            return (success ? "OK: " : "FAILED: ") + message;
+        }
+    }
+
+    // REQUIREMENT #10: Constructor overloading (Case 1 - walk-ins and bookings only)
+    public ParkingService(ParkingLot parkingLot, BookingRepository bookingRepository, DataStore dataStore,
+                          Logger logger) {
+        this(parkingLot, bookingRepository, dataStore, logger, null);
+    }
+
+    // REQUIREMENT #10: Constructor overloading (Case 2 - with future reservations)
+    public ParkingService(ParkingLot parkingLot, BookingRepository bookingRepository, DataStore dataStore,
+                          Logger logger, ReservationEngine reservationEngine) {
+        this.parkingLot = parkingLot;
+        this.bookingRepository = bookingRepository;
+        this.dataStore = dataStore;
+        this.logger = logger;
+        this.reservationEngine = reservationEngine;
+    }
+
+    // Attendant check-in: the vehicle takes the first free slot of any type
+    public Result<Booking> checkIn(String vehicleNumber, String customerId) {
+        try {
+            // REQUIREMENT #1: Static nested class - Slot usage (via allocateSlot)
+            return checkIn(parkingLot.allocateSlot(vehicleNumber, customerId), vehicleNumber, customerId);
+
+        } catch (NoAvailableSlotException e) {
+            // REQUIREMENT #7: Exception handling - NoAvailableSlotException
+            logger.logEvents(Logger.LogLevel.ERROR, () -> "Check-in failed: " + e.getMessage());
+            return Result.failure(e.getMessage());
+        }
+    }
+
+    // Attendant check-in into a slot of this lot that was already claimed for the vehicle,
+    // e.g. by LotRegistry choosing between lots
+    public Result<Booking> checkIn(ParkingLot.Slot slot, String vehicleNumber, String customerId) {
+        Booking booking = createBooking("BOOK-", id -> new Booking(id, customerId, slot.getSlotNumber(),
+                vehicleNumber));
+
+        // REQUIREMENT #11: Varargs - Log check-in
+        logger.logEvents(Logger.LogLevel.SUCCESS,
+                () -> "Vehicle " + vehicleNumber + " checked in at " + parkingLot.getParkingLotId()
+                        + " slot " + slot.getSlotNumber(),
+                () -> "Booking ID: " + booking.getBookingId());
+        return Result.ok(booking, "Vehicle checked in successfully!");
+    }
+
+    // REQUIREMENT #9: Method overloading (Case 1 - check out now)
+    public Result<Payment> checkOut(String bookingId) {
+        return checkOut(bookingId, LocalDateTime.now());
+    }
+
+    // REQUIREMENT #9: Method overloading (Case 2 - check out at a given time)
+    public Result<Payment> checkOut(String bookingId, LocalDateTime checkOutTime) {
+        Booking booking = bookingRepository.findBooking(bookingId);
+        if (booking == null) {
+            return Result.failure("Booking not found.");
+        }
+        // Claimed before anything is charged: a concurrent check-out or cancel now fails
+        // instead of racing this one, so the stay cannot be paid for twice
+        if (!bookingRepository.beginCheckOut(booking)) {
+            return Result.failure("Booking is not active.");
+        }
+
+        Payment payment;
+        boolean paid = false;
+        try {
+            // REQUIREMENT #3: Implements Billing interface - priced to the minute by the tariff
+            payment = new Payment(paymentIdFor(bookingId), booking, checkOutTime,
+                    parkingLot.getSlotType(booking.getSlotNumber()), tariff);
+
+            // REQUIREMENT #9: Method overloading - processPayment
+            paid = payment.processPayment(payment.getAmount());
+        } finally {
+            if (!paid) {
+                // Declined: the stay stays ACTIVE in its slot, so the check-out can be tried again
+                bookingRepository.abortCheckOut(booking);
+            }
+        }
+        if (!paid) {
+            logger.logEvents(Logger.LogLevel.ERROR, () -> "Check-out failed: payment declined for " + bookingId);
+            return Result.failure("Payment was not completed.");
+        }
+        bookingRepository.completeCheckOut(booking, checkOutTime);
+        releaseWindow(booking);
+        int hours = payment.getParkingHours();
+
+        bookingRepository.addPayment(payment);
+        if (dataStore != null) {
+            dataStore.appendBooking(booking);
+            dataStore.appendPayment(payment);
+        }
+        release(booking.getSlotNumber(), "Vehicle checked out");
+
+        // REQUIREMENT #11: Varargs - Log checkout
+        logger.logEvents(Logger.LogLevel.SUCCESS,
+                () -> "Vehicle " + booking.getVehicleNumber() + " checked out from slot " + booking.getSlotNumber(),
+                () -> "Booking completed. Hours parked: " + hours);
+        return Result.ok(payment, "Vehicle checked out successfully!");
+    }
+
+    // Check-out for corporate and monthly accounts, now
+    public Result<Booking> checkOutOnAccount(String bookingId) {
+        return checkOutOnAccount(bookingId, LocalDateTime.now());
+    }
+
+    /**
+     * Check-out for corporate and monthly accounts: the stay is completed and its slot
+     * released, but nothing is charged. BatchBillingPipeline bills the stay later,
+     * together with the account's other stays.
+     */
+    public Result<Booking> checkOutOnAccount(String bookingId, LocalDateTime checkOutTime) {
+        Booking booking = bookingRepository.findBooking(bookingId);
+        if (booking == null) {
+            return Result.failure("Booking not found.");
+        }
+        if (!bookingRepository.complete(booking, checkOutTime)) {
+            return Result.failure("Booking is not active.");
+        }
+        releaseWindow(booking);
+        if (dataStore != null) {
+            dataStore.appendBooking(booking);
+        }
+        release(booking.getSlotNumber(), "Vehicle checked out on account");
+
+        logger.logEvents(Logger.LogLevel.SUCCESS,
+                () -> "Vehicle " + booking.getVehicleNumber() + " checked out from slot " + booking.getSlotNumber(),
+                () -> "Billed to account of customer " + booking.getCustomerId());
+        return Result.ok(booking, "Vehicle checked out; the stay will be billed to the account.");
+    }
+
+    // REQUIREMENT #9: Method overloading (Case 3 - book any slot)
+    public Result<Booking> book(String vehicleNumber, String customerId) {
+        return book(vehicleNumber, customerId, (ParkingLot.SlotType) null);
+    }
+
+    // REQUIREMENT #9: Method overloading (Case 4 - book with a slot type name; null, empty or unknown for any)
+    public Result<Booking> book(String vehicleNumber, String customerId, String preferredType) {
+        return book(vehicleNumber, customerId, ParkingLot.SlotType.parse(preferredType));
+    }
+
+    // REQUIREMENT #9: Method overloading (Case 5 - book with a slot type preference, null for any)
+    public Result<Booking> book(String vehicleNumber, String customerId, ParkingLot.SlotType preferredType) {
+        try {
+            ParkingLot.Slot slot;
+            if (preferredType == null) {
+                slot = parkingLot.allocateSlot(vehicleNumber, customerId);
+            } else {
+                slot = parkingLot.allocateSlot(vehicleNumber, customerId, preferredType);
+            }
+            // Held for the customer until an attendant confirms the vehicle has arrived
+            Booking booking = createBooking("BOOK-", id -> {
+                Booking created = new Booking(id, customerId, slot.getSlotNumber(), vehicleNumber);
+                created.setAwaitingArrival(true);
+                return created;
+            });
+
+            logger.log(() -> "Booking created for customer " + customerId + " - ID: " + booking.getBookingId());
+            return Result.ok(booking, "Booking successful!");
+
+        } catch (NoAvailableSlotException e) {
+            // REQUIREMENT #7: Exception handling - NoAvailableSlotException
+            logger.logEvents(Logger.LogLevel.ERROR, () -> "Booking failed: " + e.getMessage());
+            return Result.failure(e.getMessage());
+        }
+    }
+
+    // REQUIREMENT #9: Method overloading (Case 6 - cancel any booking)
+    public Result<Booking> cancel(String bookingId) {
+        return cancel(bookingId, null);
+    }
+
+    // REQUIREMENT #9: Method overloading (Case 7 - cancel one of the given customer's bookings)
+    public Result<Booking> cancel(String bookingId, String customerId) {
+        try {
+            Booking booking = bookingRepository.findBooking(bookingId);
+
+            if (booking == null || (customerId != null && !customerId.equals(booking.getCustomerId()))) {
+                throw new InvalidBookingException("Booking not found with ID: " + bookingId);
+            }
+
+            if (!endBooking(booking, "Booking cancelled by customer")) {
+                throw new InvalidBookingException("Only active or reserved bookings can be cancelled.");
+            }
+
+            // REQUIREMENT #11: Varargs - Log cancellation
+            logger.logEvents(Logger.LogLevel.SUCCESS,
+                    () -> "Booking " + bookingId + " cancelled",
+                    () -> "Customer: " + booking.getCustomerId());
+            return Result.ok(booking, "Booking cancelled successfully.");
+
+        } catch (InvalidBookingException e) {
+            // REQUIREMENT #7: Exception handling - InvalidBookingException
+            logger.logEvents(Logger.LogLevel.ERROR, () -> "Cancellation failed: " + e.getMessage());
+            return Result.failure(e.getMessage());
+        }
+    }
+
+    // Attendant confirms that a booked vehicle has arrived at its slot, so the booking is no
+    // longer a no-show candidate
+    public Result<Booking> recordArrival(String bookingId) {
+        Booking booking = bookingRepository.findBooking(bookingId);
+        if (booking == null) {
+            return Result.failure("Booking not found.");
+        }
+        if (!bookingRepository.recordArrival(booking)) {
+            return Result.failure("Booking is not waiting for an arrival.");
+        }
+        if (dataStore != null) {
+            dataStore.appendBooking(booking);
+        }
+        logger.logEvents(Logger.LogLevel.SUCCESS,
+                () -> "Vehicle " + booking.getVehicleNumber() + " arrived at slot " + booking.getSlotNumber(),
+                () -> "Booking ID: " + bookingId);
+        return Result.ok(booking, "Arrival recorded.");
+    }
+
+    /**
+     * Expires a booking whose customer never arrived, and logs the reason. A reservation is
+     * cancelled and its calendar window freed; an ACTIVE booking is cancelled and its slot
+     * released, but only while no arrival has been recorded for it, since otherwise the
+     * vehicle may be parked there and only a check-out ends the stay.
+     */
+    public Result<Booking> expire(Booking booking, String reason) {
+        if (!endReservation(booking) && !endStay(booking, reason, true)) {
+            return Result.failure("Booking is no longer reserved or awaiting arrival.");
+        }
+        logger.logEvents(Logger.LogLevel.WARNING,
+                () -> "Booking " + booking.getBookingId() + " expired",
+                () -> "Reason: " + reason);
+        return Result.ok(booking, "Booking expired.");
+    }
+
+    /**
+     * REQUIREMENT #9: Method overloading (Case 8 - reserve a slot type for [start, end))
+     * The booking is RESERVED, with the window as its check-in and check-out times, and
+     * names the slot the calendar set aside.
+     */
+    public Result<Booking> reserve(String vehicleNumber, String customerId, ParkingLot.SlotType slotType,
+                                   LocalDateTime start, LocalDateTime end) {
+        try {
+            if (reservationEngine == null) {
+                throw new InvalidBookingException("Reservations are not enabled.");
+            }
+            if (slotType == null || start == null || end == null || !end.isAfter(start)) {
+                throw new InvalidBookingException("A reservation needs a slot type and an end after its start.");
+            }
+            LocalDateTime now = LocalDateTime.now();
+            if (!end.isAfter(now)) {
+                throw new InvalidBookingException("The reservation window has already ended.");
+            }
+            int slotNumber = reservationEngine.reserve(slotType, start, end, now);
+            if (slotNumber < 0) {
+                throw new NoAvailableSlotException("No " + slotType + " slot is free for the whole window.");
+            }
+            Booking booking = createBooking("RES-", id -> new Booking(id, customerId, slotNumber, vehicleNumber,
+                    start, end, Booking.Status.RESERVED));
+
+            logger.log(() -> "Reservation created for customer " + customerId + " - ID: " + booking.getBookingId()
+                    + ", slot " + slotNumber);
+            return Result.ok(booking, "Reservation successful!");
+
+        } catch (InvalidBookingException | NoAvailableSlotException e) {
+            // REQUIREMENT #7: Exception handling - multi-catch
+            logger.logEvents(Logger.LogLevel.ERROR, () -> "Reservation failed: " + e.getMessage());
+            return Result.failure(e.getMessage());
+        }
+    }
+
+    // REQUIREMENT #9: Method overloading (Case 9 - arrive for a reservation now)
+    public Result<Booking> checkInReservation(String bookingId) {
+        return checkInReservation(bookingId, LocalDateTime.now());
+    }
+
+    /**
+     * REQUIREMENT #9: Method overloading (Case 10 - arrive for a reservation at a given time)
+     * The vehicle takes the reserved slot. If that slot is still taken, say by a walk-in
+     * that overstayed, it takes another free slot of the same type, and the window
+     * moves with it.
+     */
+    public Result<Booking> checkInReservation(String bookingId, LocalDateTime arrivalTime) {
+        try {
+            Booking booking = bookingRepository.findBooking(bookingId);
+            if (booking == null || !booking.hasStatus(Booking.Status.RESERVED)) {
+                throw new InvalidBookingException("No pending reservation with ID: " + bookingId);
+            }
+            LocalDateTime start = booking.getCheckInTime();
+            LocalDateTime end = booking.getCheckOutTime();
+            if (end != null && !arrivalTime.isBefore(end)) {
+                throw new InvalidBookingException("The reservation window has already ended.");
+            }
+
+            int reservedSlot = booking.getSlotNumber();
+            ParkingLot.Slot slot;
+            try {
+                slot = parkingLot.allocateSlot(reservedSlot, booking.getVehicleNumber(), booking.getCustomerId());
+            } catch (NoAvailableSlotException e) {
+                slot = parkingLot.claimFree(parkingLot.getSlotType(reservedSlot).ordinal(),
+                        booking.getVehicleNumber(), booking.getCustomerId());
+                if (slot == null) {
+                    throw new NoAvailableSlotException("Reserved slot " + reservedSlot
+                            + " is still occupied and no other " + parkingLot.getSlotType(reservedSlot)
+                            + " slot is free.");
+                }
+            }
+
+            if (!bookingRepository.activate(booking, slot.getSlotNumber(), arrivalTime)) {
+                release(slot.getSlotNumber(), "Reservation no longer pending");
+                throw new InvalidBookingException("No pending reservation with ID: " + bookingId);
+            }
+            if (slot.getSlotNumber() != reservedSlot && reservationEngine != null) {
+                reservationEngine.release(reservedSlot, start);
+                reservationEngine.hold(slot.getSlotNumber(), start, end);
+            }
+            windowStarts.put(booking, start);
+            if (dataStore != null) {
+                dataStore.appendBooking(booking);
+            }
+
+            // REQUIREMENT #11: Varargs - Log check-in
+            logger.logEvents(Logger.LogLevel.SUCCESS,
+                    () -> "Vehicle " + booking.getVehicleNumber() + " checked in at slot " + booking.getSlotNumber(),
+                    () -> "Reservation ID: " + bookingId);
+            return Result.ok(booking, "Vehicle checked in for reservation!");
+
+        } catch (InvalidBookingException | NoAvailableSlotException e) {
+            // REQUIREMENT #7: Exception handling - multi-catch
+            logger.logEvents(Logger.LogLevel.ERROR, () -> "Reservation check-in failed: " + e.getMessage());
+            return Result.failure(e.getMessage());
+        }
+    }
+
+    // Puts every pending reservation back in the calendar, e.g. after loading saved data;
+    // returns how many were restored
+    public int restoreReservations() {
+        if (reservationEngine == null) {
+            return 0;
+        }
+        int restored = 0;
+        for (Booking booking : bookingRepository.findByStatus(Booking.Status.RESERVED)) {
+            if (booking.getCheckInTime() != null && booking.getCheckOutTime() != null
+                    && reservationEngine.hold(booking.getSlotNumber(), booking.getCheckInTime(),
+                    booking.getCheckOutTime())) {
+                restored++;
+            } else {
+                System.err.println("Error restoring reservation: " + booking.getBookingId()
+                        + " clashes with another window on slot " + booking.getSlotNumber());
+            }
+        }
+        return restored;
+    }
+
+    // All payments for the customer's bookings, oldest booking first
+    public Result<List<Payment>> invoice(String customerId) {
+        List<Payment> payments = bookingRepository.findPaymentsByCustomer(customerId);
+        return Result.ok(payments, payments.isEmpty() ? "No invoices found." : payments.size() + " invoice(s)");
+    }
+
+    public Result<List<Booking>> bookings(String customerId) {
+        List<Booking> bookings = bookingRepository.findByCustomer(customerId);
+        return Result.ok(bookings, bookings.isEmpty() ? "No bookings found." : bookings.size() + " booking(s)");
+    }
+
+    public ParkingLot getParkingLot() {
+        return parkingLot;
+    }
+
+    public BookingRepository getBookingRepository() {
+        return bookingRepository;
+    }
+
+    public TariffEngine getTariff() {
+        return tariff;
+    }
+
+    // Prices check-outs from now on; bookings already paid keep their amounts
+    public void setTariff(TariffEngine tariff) {
+        this.tariff = tariff;
+    }
+
+    public ReservationEngine getReservationEngine() {
+        return reservationEngine;
+    }
+
+    // Registers a new booking under a fresh random ID with the given prefix, retrying on the
+    // rare collision. Eight hex digits leave room for millions of bookings; ThreadLocalRandom
+    // avoids the shared SecureRandom behind UUID.randomUUID() when many threads book at once.
+    private Booking createBooking(String prefix, Function<String, Booking> factory) {
+        Booking booking;
+        do {
+            long bits = ThreadLocalRandom.current().nextLong(1L << 32) | (1L << 32);
+            booking = factory.apply(prefix + Long.toHexString(bits).substring(1).toUpperCase());
+        } while (!bookingRepository.addBookingIfAbsent(booking));
+        if (dataStore != null) {
+            dataStore.appendBooking(booking);
+        }
+        return booking;
+    }
+
+    // RESERVED or ACTIVE to CANCELLED, freeing the calendar window or the slot; false if the
+    // booking was neither. The status change is a compare-and-set, so this happens once.
+    private boolean endBooking(Booking booking, String reason) {
+        return endReservation(booking) || endStay(booking, reason, false);
+    }
+
+    // ACTIVE to CANCELLED, releasing the slot; with unarrivedOnly, only while the booking is
+    // still awaiting arrival. Both checks run under the repository's lock, the one
+    // recordArrival takes, so an arrival recorded first always keeps the booking.
+    private boolean endStay(Booking booking, String reason, boolean unarrivedOnly) {
+        synchronized (bookingRepository) {
+            if (unarrivedOnly && !booking.isAwaitingArrival()) {
+                return false;
+            }
+            if (!bookingRepository.updateStatus(booking, Booking.Status.ACTIVE, Booking.Status.CANCELLED)) {
+                return false;
+            }
+        }
+        releaseWindow(booking);
+        if (dataStore != null) {
+            dataStore.appendBooking(booking);
+        }
+        release(booking.getSlotNumber(), reason);
+        return true;
+    }
+
+    // RESERVED to CANCELLED, freeing the calendar window; false if the booking was not
+    // reserved, e.g. because the customer checked in first
+    private boolean endReservation(Booking booking) {
+        if (!bookingRepository.updateStatus(booking, Booking.Status.RESERVED, Booking.Status.CANCELLED)) {
+            return false;
+        }
+        // A reservation has no slot yet, only a window in the calendar
+        if (reservationEngine != null) {
+            reservationEngine.release(booking.getSlotNumber(), booking.getCheckInTime());
+        }
+        if (dataStore != null) {
+            dataStore.appendBooking(booking);
+        }
+        return true;
+    }
+
+    // Frees the calendar window of a stay that checked in for a reservation, so a stay that
+    // ends early gives the rest of its window back
+    private void releaseWindow(Booking booking) {
+        LocalDateTime start = windowStarts.remove(booking);
+        if (start != null && reservationEngine != null) {
+            reservationEngine.release(booking.getSlotNumber(), start);
+        }
+    }
+
+    // One payment per booking, so its ID can be derived from the booking ID. Check-out and
+    // batch billing share it, so a booking can never be charged by both.
+    static String paymentIdFor(String bookingId) {
+        return "PAY-" + (bookingId.startsWith("BOOK-") ? bookingId.substring(5) : bookingId);
+    }
+
+    private void release(int slotNumber, String reason) {
+        parkingLot.deallocateSlot(slotNumber);
+        logger.logWithContext("SLOT", () -> "Slot " + slotNumber + " deallocated. Reason: " + reason);
+    }
+}
@@ -18,12 +18,57 @@ import java.time.LocalDateTime;
  * REQUIREMENT #12: Wrapper classes - uses Integer and Double explicitly.
  */
 public class Payment implements Billing {
+    // Payment state; the one-letter code is the compact persisted form
+    public enum Status {
+        PENDING('P'),
+        COMPLETED('C'),
+        FAILED('F');
+
+        private static final Status[] VALUES = values();
+
+        private final char code;
+
+        Status(char code) {
+            this.code = code;
+        }
+
+        public char getCode() {
+            return code;
+        }
+
+        // Accepts the one-letter code or the name in any case, so older files still load
+        public static Status parse(String value) {
+            if (value != null) {
+                String trimmed = value.trim();
+                for (Status status : VALUES) {
+                    if (trimmed.length() == 1 ? Character.toUpperCase(trimmed.charAt(0)) == status.code
+                            : status.name().equalsIgnoreCase(trimmed)) {
+                        return status;
+                    }
+                }
+            }
+            throw new IllegalArgumentException("Unknown payment status: " + value);
+        }
+
+        public static Status ofCode(char code) {
+            for (Status status : VALUES) {
+                if (status.code == code) {
+                    return status;
+                }
+            }
+            throw new IllegalArgumentException("Unknown payment status code: " + code);
+        }
+    }
+
     private String paymentId;
     private String bookingId;
     private Double amount;  // REQUIREMENT #12: Wrapper class - Double
     private Integer parkingHours;  // REQUIREMENT #12: Wrapper class - Integer
-    private String paymentStatus;
+    private Status paymentStatus;
     private LocalDateTime paymentTime;
+    private ParkingLot.SlotType slotType;  // null unless priced from the stay's times
+    private TariffEngine tariff;           // null unless priced from the stay's times; not persisted
+    private LocalDateTime checkInTime;     // with a tariff: the stay's start, for repricing; not persisted
     private static final Double HOURLY_RATE = 50.0;  // Rs. 50 per hour
 
     // REQUIREMENT #10: Constructor overloading (Case 1 - Full constructor)
@@ -32,7 +77,7 @@ public class Payment implements Billing {
         this.bookingId = bookingId;
         this.parkingHours = parkingHours;
         this.amount = calculateFare(parkingHours);  // REQUIREMENT #12: Wrapper class usage
-        this.paymentStatus = "PENDING";
+        this.paymentStatus = Status.PENDING;
         this.paymentTime = null;
     }
 
@@ -42,7 +87,26 @@ public class Payment implements Billing {
         this.bookingId = bookingId;
         this.parkingHours = 0;
         this.amount = 0.0;
-        this.paymentStatus = "PENDING";
+        this.paymentStatus = Status.PENDING;
+        this.paymentTime = null;
+    }
+
+    // REQUIREMENT #10: Constructor overloading (Case 3 - priced by a tariff from the stay's times)
+    public Payment(String paymentId, Booking booking, ParkingLot.SlotType slotType, TariffEngine tariff) {
+        this(paymentId, booking, booking.getCheckOutTime(), slotType, tariff);
+    }
+
+    // REQUIREMENT #10: Constructor overloading (Case 4 - priced for a check-out the booking has not recorded yet)
+    public Payment(String paymentId, Booking booking, LocalDateTime checkOutTime, ParkingLot.SlotType slotType,
+                   TariffEngine tariff) {
+        this.paymentId = paymentId;
+        this.bookingId = booking.getBookingId();
+        this.parkingHours = booking.calculateDuration(checkOutTime);
+        this.slotType = slotType;
+        this.tariff = tariff;
+        this.checkInTime = booking.getCheckInTime();
+        this.amount = calculateFare(booking.getCheckInTime(), checkOutTime);
+        this.paymentStatus = Status.PENDING;
         this.paymentTime = null;
     }
 
@@ -65,13 +129,20 @@ public class Payment implements Billing {
         return calculateFare(hours);
     }
 
+    // REQUIREMENT #9: Method overloading (Case 4 - calculateFare from the stay's times, to the minute)
+    @Override
+    public double calculateFare(LocalDateTime checkIn, LocalDateTime checkOut) {
+        return (tariff != null ? tariff : TariffEngine.FLAT).calculateFare(checkIn, checkOut, slotType);
+    }
+
     @Override
     public String generateReceipt() {
         return "=== PARKING RECEIPT ===\n" +
                 "Payment ID: " + paymentId + "\n" +
                 "Booking ID: " + bookingId + "\n" +
                 "Parking Hours: " + parkingHours + "\n" +
-                "Hourly Rate: Rs. " + HOURLY_RATE + "\n" +
+                (tariff != null ? "Tariff: " + tariff.getName() + (slotType != null ? " (" + slotType + ")" : "")
+                        : "Hourly Rate: Rs. " + HOURLY_RATE) + "\n" +
                 "Total Amount: Rs. " + amount + "\n" +
                 "Status: " + paymentStatus + "\n" +
                 (paymentTime != null ? "Payment Time: " + paymentTime + "\n" : "") +
@@ -81,14 +152,14 @@ public class Payment implements Billing {
     @Override
     public boolean processPayment(double amount) {
         if (amount >= this.amount) {
-            this.paymentStatus = "COMPLETED";
+            this.paymentStatus = Status.COMPLETED;
             this.paymentTime = LocalDateTime.now();
             return true;
         }
         return false;
     }
 
-    // REQUIREMENT #9: Method overloading (Case 4 - overloaded version with integer amount)
+    // REQUIREMENT #9: Method overloading (Case 5 - overloaded version with integer amount)
     public boolean processPayment(Integer amount) {
         return processPayment((double) amount);
     }
@@ -114,19 +185,27 @@ public class Payment implements Billing {
         return parkingHours;
     }
 
+    // Re-prices the payment: with its tariff from the stay's check-in, otherwise at the flat rate
     public void setParkingHours(Integer parkingHours) {
         this.parkingHours = parkingHours;
-        this.amount = calculateFare(parkingHours);
+        this.amount = tariff != null && checkInTime != null
+                ? tariff.calculateFare(checkInTime, parkingHours, slotType)
+                : calculateFare(parkingHours);
     }
 
-    public String getPaymentStatus() {
+    public Status getPaymentStatus() {
         return paymentStatus;
     }
 
-    public void setPaymentStatus(String paymentStatus) {
+    public void setPaymentStatus(Status paymentStatus) {
         this.paymentStatus = paymentStatus;
     }
 
+    // Status by name or code
+    public void setPaymentStatus(String paymentStatus) {
+        this.paymentStatus = Status.parse(paymentStatus);
+    }
+
     public LocalDateTime getPaymentTime() {
         return paymentTime;
     }
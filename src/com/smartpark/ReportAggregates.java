@@ -0,0 +1,206 @@
+/*
+ * File: ReportAggregates.java
+ * Package: com.smartpark
+ * Purpose: Running totals behind the admin reports, updated on every booking and payment change
+ * Requirements: #9 (Method overloading)
+ */
+
+package com.smartpark;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Keeps the figures the admin reports need as running totals, so a report costs
+ * the same however much history there is. Each figure is updated as a
+ * BookingRepository change happens, instead of being recounted from the booking
+ * list when a report is opened:
+ *   - bookings per status
+ *   - payment count and amount per payment status, so revenue is the COMPLETED amount
+ *   - per hour of day: arrivals, and slot-minutes of completed stays in that hour
+ *     (a stay from 09:30 to 11:00 adds 30 to hour 9 and 60 to hour 10)
+ *   - per slot type: bookings and slot-minutes of completed stays
+ * Live occupancy, overall and per type, comes from the lot's own counters. RESERVED
+ * bookings only count by status until the customer arrives.
+ *
+ * A booking adds to these figures according to its current state, and a
+ * change takes away the old state's share before adding the new one. A replayed
+ * journal record that replaces an earlier one is therefore counted once.
+ * Amounts are kept in paise (1/100 rupee) as longs, so totals do not drift.
+ * Updates arrive under the repository's lock; reads may come from any thread.
+ */
+public class ReportAggregates implements BookingRepository.ChangeListener {
+    private static final int HOURS_PER_DAY = 24;
+    private static final int MINUTES_PER_DAY = HOURS_PER_DAY * 60;
+
+    private final ParkingLot parkingLot;
+    private final AtomicLongArray bookingsByStatus = new AtomicLongArray(Booking.Status.values().length);
+    private final AtomicLongArray paymentsByStatus = new AtomicLongArray(Payment.Status.values().length);
+    private final AtomicLongArray paiseByStatus = new AtomicLongArray(Payment.Status.values().length);
+    private final AtomicLongArray arrivalsByHour = new AtomicLongArray(HOURS_PER_DAY);
+    private final AtomicLongArray stayMinutesByHour = new AtomicLongArray(HOURS_PER_DAY);
+    private final AtomicLongArray bookingsByType = new AtomicLongArray(ParkingLot.SlotType.values().length);
+    private final AtomicLongArray stayMinutesByType = new AtomicLongArray(ParkingLot.SlotType.values().length);
+
+    public ReportAggregates(ParkingLot parkingLot) {
+        this.parkingLot = parkingLot;
+    }
+
+    /**
+     * Counts everything already in the repository, then listens for changes. The
+     * repository's monitor is held throughout, so no change is missed or counted twice.
+     */
+    public void attach(BookingRepository repository) {
+        synchronized (repository) {
+            for (Booking booking : repository.getAllBookings()) {
+                apply(booking, booking.getStatus(), 1);
+            }
+            for (Payment payment : repository.getAllPayments()) {
+                apply(payment, 1);
+            }
+            repository.addListener(this);
+        }
+    }
+
+    @Override
+    public void bookingAdded(Booking previous, Booking booking) {
+        if (previous != null) {
+            apply(previous, previous.getStatus(), -1);
+        }
+        apply(booking, booking.getStatus(), 1);
+    }
+
+    @Override
+    public void statusChanged(Booking booking, Booking.Status previousStatus) {
+        apply(booking, previousStatus, -1);
+        apply(booking, booking.getStatus(), 1);
+    }
+
+    @Override
+    public void paymentAdded(Payment previous, Payment payment) {
+        if (previous != null) {
+            apply(previous, -1);
+        }
+        apply(payment, 1);
+    }
+
+    // REQUIREMENT #9: Method overloading (Case 1 - a booking's share in the given status)
+    private void apply(Booking booking, Booking.Status status, int sign) {
+        bookingsByStatus.addAndGet(status.ordinal(), sign);
+        if (status == Booking.Status.RESERVED) {
+            return;  // a future window, not an arrival yet
+        }
+        LocalDateTime checkIn = booking.getCheckInTime();
+        if (checkIn != null) {
+            arrivalsByHour.addAndGet(checkIn.getHour(), sign);
+        }
+        ParkingLot.SlotType type = parkingLot.getSlotType(booking.getSlotNumber());
+        if (type != null) {
+            bookingsByType.addAndGet(type.ordinal(), sign);
+        }
+        LocalDateTime checkOut = booking.getCheckOutTime();
+        if (status == Booking.Status.COMPLETED && checkIn != null && checkOut != null && checkOut.isAfter(checkIn)) {
+            long minutes = addStay(checkIn, checkOut, sign);
+            if (type != null) {
+                stayMinutesByType.addAndGet(type.ordinal(), sign * minutes);
+            }
+        }
+    }
+
+    // REQUIREMENT #9: Method overloading (Case 2 - a payment's share)
+    private void apply(Payment payment, int sign) {
+        int status = payment.getPaymentStatus().ordinal();
+        paymentsByStatus.addAndGet(status, sign);
+        Double amount = payment.getAmount();
+        if (amount != null) {
+            paiseByStatus.addAndGet(status, sign * Math.round(amount * 100));
+        }
+    }
+
+    // Spreads a stay over the hour-of-day buckets in at most 25 steps; returns its length in minutes
+    private long addStay(LocalDateTime checkIn, LocalDateTime checkOut, int sign) {
+        long minutes = Duration.between(checkIn, checkOut).toMinutes();
+        long fullDays = minutes / MINUTES_PER_DAY;
+        if (fullDays > 0) {
+            for (int hour = 0; hour < HOURS_PER_DAY; hour++) {
+                stayMinutesByHour.addAndGet(hour, sign * fullDays * 60);
+            }
+        }
+        long remaining = minutes - fullDays * MINUTES_PER_DAY;
+        int hour = checkIn.getHour();
+        long intoHour = checkIn.getMinute();
+        while (remaining > 0) {
+            long inThisHour = Math.min(remaining, 60 - intoHour);
+            stayMinutesByHour.addAndGet(hour, sign * inThisHour);
+            remaining -= inThisHour;
+            hour = (hour + 1) % HOURS_PER_DAY;
+            intoHour = 0;
+        }
+        return minutes;
+    }
+
+    public long getBookingCount(Booking.Status status) {
+        return bookingsByStatus.get(status.ordinal());
+    }
+
+    public long getBookingCount() {
+        long total = 0;
+        for (int i = 0; i < bookingsByStatus.length(); i++) {
+            total += bookingsByStatus.get(i);
+        }
+        return total;
+    }
+
+    public long getPaymentCount(Payment.Status status) {
+        return paymentsByStatus.get(status.ordinal());
+    }
+
+    public double getAmount(Payment.Status status) {
+        return paiseByStatus.get(status.ordinal()) / 100.0;
+    }
+
+    // Amount of completed payments
+    public double getRevenue() {
+        return getAmount(Payment.Status.COMPLETED);
+    }
+
+    public long getArrivals(int hourOfDay) {
+        return arrivalsByHour.get(hourOfDay);
+    }
+
+    // Slot-hours of completed stays that fell in this hour of the day
+    public double getOccupiedHours(int hourOfDay) {
+        return stayMinutesByHour.get(hourOfDay) / 60.0;
+    }
+
+    // Hour of the day with the most completed-stay slot-minutes (the earliest on a tie)
+    public int getBusiestHour() {
+        int busiest = 0;
+        for (int hour = 1; hour < HOURS_PER_DAY; hour++) {
+            if (stayMinutesByHour.get(hour) > stayMinutesByHour.get(busiest)) {
+                busiest = hour;
+            }
+        }
+        return busiest;
+    }
+
+    public long getBookingCount(ParkingLot.SlotType type) {
+        return bookingsByType.get(type.ordinal());
+    }
+
+    public double getOccupiedHours(ParkingLot.SlotType type) {
+        return stayMinutesByType.get(type.ordinal()) / 60.0;
+    }
+
+    // Share of the type's slots occupied right now, in percent
+    public double getUtilization(ParkingLot.SlotType type) {
+        ParkingLot.AvailabilityMonitor monitor = parkingLot.getMonitor();
+        int total = monitor.getTotalSlots(type);
+        return total == 0 ? 0.0 : (double) monitor.getOccupiedSlots(type) / total * 100;
+    }
+
+    public ParkingLot getParkingLot() {
+        return parkingLot;
+    }
+}
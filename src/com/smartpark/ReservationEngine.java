@@ -0,0 +1,357 @@
+/*
+ * File: ReservationEngine.java
+ * Package: com.smartpark
+ * Purpose: Per-slot interval calendars for future reservations, and the hold that keeps
+ *          reserved slots back from walk-ins
+ * Requirements: #1 (Nested classes), #9 (Method overloading)
+ */
+
+package com.smartpark;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Keeps a calendar of reserved windows [start, end) for every slot and picks a slot
+ * of the requested type for a new window.
+ *
+ * Each slot's calendar is a skip list keyed by start time. Windows in one calendar
+ * never overlap, so a new window fits if the window starting at or before it has
+ * ended and the next one has not begun: two O(log r) lookups for r windows on the
+ * slot. To find a slot, each type has a CapacityIndex, a segment tree over the
+ * type's slots holding the start of each slot's first window and the end of its
+ * last one (an empty calendar never clashes). For a window that starts beyond the
+ * hold horizon, the first slot whose windows have all ended by its start, or all
+ * begin after its end, is found in O(log n) for n slots of the type. Only when every
+ * slot would need the window in a gap between two of its windows are the calendars
+ * of the slots with reservations checked one by one, O(m log r) for m such slots.
+ * A window starting sooner also needs a slot that is free now. Occupancy changes
+ * without the engine hearing of it, so that search walks the lot's free slots of
+ * the type, O(log64 n) each, and only steps past free slots whose calendars clash.
+ *
+ * The engine is the lot's SlotHold. A slot is held from holdAhead before a window
+ * starts until the window ends, and walk-in allocation passes it over. A window
+ * that starts within holdAhead is only given to a slot that is free now. A window
+ * stays in its calendar after the customer checks in, so the slot is not promised
+ * to someone else during a stay that has been paid for; ParkingService releases it
+ * when the stay ends, even if that is before the window's end.
+ *
+ * Changes synchronize on the engine; isHeld reads the calendars without locking, so
+ * it is safe to call from the lot's lock-free allocator on any thread.
+ */
+public class ReservationEngine implements ParkingLot.SlotHold {
+    public static final Duration DEFAULT_HOLD_AHEAD = Duration.ofMinutes(30);
+
+    private final ParkingLot parkingLot;
+    private final long holdAheadSeconds;
+    // By slot index; null until used. Set under the engine's lock, read by isHeld without it
+    private final AtomicReferenceArray<ConcurrentSkipListMap<Long, Window>> calendars;
+    private final CapacityIndex[] capacity;  // by type: first start and last end of each slot's windows
+    private final int[] positions;           // by slot index: its position in its type's CapacityIndex
+    private final BitSet[] reserved;         // by type: slots of that type with windows
+    private int windowCount;
+
+    // REQUIREMENT #1: Static nested class - one reserved window, epoch seconds (UTC reading)
+    private static final class Window {
+        final long start;
+        final long end;  // exclusive
+
+        Window(long start, long end) {
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    /**
+     * REQUIREMENT #1: Static nested class - segment tree over one type's slots. Each
+     * leaf holds the start of the slot's first window and the end of its last, and
+     * each inner node the largest first start and smallest last end below it, so the
+     * leftmost slot a window can go before or after is found in one O(log n) descent.
+     */
+    private static final class CapacityIndex {
+        private static final long NONE = Long.MIN_VALUE;  // last end of an empty calendar
+        private static final long NEVER = Long.MAX_VALUE; // first start of an empty calendar
+
+        private final int[] slots;  // by position: slot index
+        private final int leaves;   // a power of two; padding leaves never match
+        private final long[] firstStart;
+        private final long[] lastEnd;
+
+        CapacityIndex(int[] slots) {
+            this.slots = slots;
+            int size = 1;
+            while (size < slots.length) {
+                size <<= 1;
+            }
+            this.leaves = size;
+            this.firstStart = new long[2 * size];
+            this.lastEnd = new long[2 * size];
+            Arrays.fill(firstStart, NONE);
+            Arrays.fill(lastEnd, NEVER);
+            for (int position = 0; position < slots.length; position++) {
+                firstStart[size + position] = NEVER;
+                lastEnd[size + position] = NONE;
+            }
+            for (int node = size - 1; node >= 1; node--) {
+                pull(node);
+            }
+        }
+
+        // O(log n): records the slot's calendar bounds and fixes its ancestors
+        void update(int position, long start, long end) {
+            int node = leaves + position;
+            firstStart[node] = start;
+            lastEnd[node] = end;
+            for (node >>= 1; node >= 1; node >>= 1) {
+                pull(node);
+            }
+        }
+
+        // Leftmost slot index whose windows have all ended by 'from', or -1
+        int endedBy(long from) {
+            if (lastEnd[1] > from) {
+                return -1;
+            }
+            int node = 1;
+            while (node < leaves) {
+                node = lastEnd[2 * node] <= from ? 2 * node : 2 * node + 1;
+            }
+            return slots[node - leaves];
+        }
+
+        // Leftmost slot index whose windows all start at or after 'to', or -1
+        int startingFrom(long to) {
+            if (firstStart[1] < to) {
+                return -1;
+            }
+            int node = 1;
+            while (node < leaves) {
+                node = firstStart[2 * node] >= to ? 2 * node : 2 * node + 1;
+            }
+            return slots[node - leaves];
+        }
+
+        private void pull(int node) {
+            firstStart[node] = Math.max(firstStart[2 * node], firstStart[2 * node + 1]);
+            lastEnd[node] = Math.min(lastEnd[2 * node], lastEnd[2 * node + 1]);
+        }
+    }
+
+    // REQUIREMENT #10: Constructor overloading (Case 1 - default hold)
+    public ReservationEngine(ParkingLot parkingLot) {
+        this(parkingLot, DEFAULT_HOLD_AHEAD);
+    }
+
+    // REQUIREMENT #10: Constructor overloading (Case 2 - slots are held this long before a window)
+    public ReservationEngine(ParkingLot parkingLot, Duration holdAhead) {
+        this.parkingLot = parkingLot;
+        this.holdAheadSeconds = holdAhead.getSeconds();
+        int totalSlots = parkingLot.getTotalSlots();
+        this.calendars = new AtomicReferenceArray<>(totalSlots);
+        int types = ParkingLot.SlotType.values().length;
+        this.capacity = new CapacityIndex[types];
+        this.positions = new int[totalSlots];
+        this.reserved = new BitSet[types];
+        for (ParkingLot.SlotType type : ParkingLot.SlotType.values()) {
+            int[] slots = new int[totalSlots];
+            int count = 0;
+            for (PrimitiveIterator.OfInt it = parkingLot.slotNumbers(type); it.hasNext(); ) {
+                int index = it.nextInt() - 1;
+                positions[index] = count;
+                slots[count++] = index;
+            }
+            capacity[type.ordinal()] = new CapacityIndex(Arrays.copyOf(slots, count));
+            reserved[type.ordinal()] = new BitSet(totalSlots);
+        }
+    }
+
+    // REQUIREMENT #9: Method overloading (Case 1 - reserve as of now)
+    public int reserve(ParkingLot.SlotType type, LocalDateTime start, LocalDateTime end) {
+        return reserve(type, start, end, LocalDateTime.now());
+    }
+
+    /**
+     * REQUIREMENT #9: Method overloading (Case 2 - reserve as of a given time)
+     * Records [start, end) on a slot of the type and returns its number, or -1 if no
+     * slot of the type is free for the whole window.
+     */
+    public synchronized int reserve(ParkingLot.SlotType type, LocalDateTime start, LocalDateTime end,
+                                    LocalDateTime now) {
+        long from = seconds(start);
+        long to = seconds(end);
+        long current = seconds(now);
+        int index = findSlot(type, from, to, current);
+        if (index >= 0) {
+            pruneEnded(index, current);
+            add(index, type, from, to);
+        }
+        return index < 0 ? -1 : index + 1;
+    }
+
+    /**
+     * Records [start, end) on the given slot, as when reservations are loaded at start-up
+     * or a checked-in reservation moves to another slot. Returns false if the window
+     * clashes with one already there.
+     */
+    public synchronized boolean hold(int slotNumber, LocalDateTime start, LocalDateTime end) {
+        ParkingLot.SlotType type = parkingLot.getSlotType(slotNumber);
+        long from = seconds(start);
+        long to = seconds(end);
+        if (type == null || to <= from || !fits(calendars.get(slotNumber - 1), from, to)) {
+            return false;
+        }
+        add(slotNumber - 1, type, from, to);
+        return true;
+    }
+
+    // Removes the window starting at 'start' from the slot's calendar; false if there was none
+    public synchronized boolean release(int slotNumber, LocalDateTime start) {
+        if (slotNumber < 1 || slotNumber > calendars.length()) {
+            return false;
+        }
+        int index = slotNumber - 1;
+        ConcurrentSkipListMap<Long, Window> calendar = calendars.get(index);
+        if (calendar == null || calendar.remove(seconds(start)) == null) {
+            return false;
+        }
+        windowCount--;
+        reindex(index);
+        return true;
+    }
+
+    // REQUIREMENT #9: Method overloading (Case 3 - held right now; the lot's walk-in check)
+    @Override
+    public boolean isHeld(int slotNumber) {
+        return isHeld(slotNumber, LocalDateTime.now());
+    }
+
+    // REQUIREMENT #9: Method overloading (Case 4 - held at a given time)
+    public boolean isHeld(int slotNumber, LocalDateTime at) {
+        if (slotNumber < 1 || slotNumber > calendars.length()) {
+            return false;
+        }
+        ConcurrentSkipListMap<Long, Window> calendar = calendars.get(slotNumber - 1);
+        if (calendar == null) {
+            return false;
+        }
+        long t = seconds(at);
+        // The latest window starting before the hold horizon; ends are ordered like starts
+        Map.Entry<Long, Window> latest = calendar.lowerEntry(t + holdAheadSeconds);
+        return latest != null && latest.getValue().end > t;
+    }
+
+    // Whether some slot of the type could take [start, end) as of now
+    public synchronized boolean isAvailable(ParkingLot.SlotType type, LocalDateTime start, LocalDateTime end) {
+        return findSlot(type, seconds(start), seconds(end), seconds(LocalDateTime.now())) >= 0;
+    }
+
+    public synchronized int getReservationCount() {
+        return windowCount;
+    }
+
+    public Duration getHoldAhead() {
+        return Duration.ofSeconds(holdAheadSeconds);
+    }
+
+    // A slot index of the type that can take [from, to), or -1
+    private int findSlot(ParkingLot.SlotType type, long from, long to, long now) {
+        if (to <= from) {
+            return -1;
+        }
+        if (from < now + holdAheadSeconds) {
+            // Starts within the hold: only a slot that is free now will do
+            for (int i = parkingLot.nextFreeSlot(type, 0); i >= 0; i = parkingLot.nextFreeSlot(type, i + 1)) {
+                pruneEnded(i, now);
+                if (fits(calendars.get(i), from, to)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        CapacityIndex index = capacity[type.ordinal()];
+        int slot = index.endedBy(from);
+        if (slot < 0) {
+            slot = index.startingFrom(to);
+        }
+        if (slot >= 0) {
+            return slot;
+        }
+        // Rare: the window only fits between two windows on a slot
+        BitSet withWindows = reserved[type.ordinal()];
+        for (int i = withWindows.nextSetBit(0); i >= 0; i = withWindows.nextSetBit(i + 1)) {
+            pruneEnded(i, now);
+            if (fits(calendars.get(i), from, to)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean fits(ConcurrentSkipListMap<Long, Window> calendar, long from, long to) {
+        if (calendar == null) {
+            return true;
+        }
+        Map.Entry<Long, Window> before = calendar.floorEntry(from);
+        if (before != null && before.getValue().end > from) {
+            return false;
+        }
+        Map.Entry<Long, Window> after = calendar.higherEntry(from);
+        return after == null || after.getKey() >= to;
+    }
+
+    private void add(int index, ParkingLot.SlotType type, long from, long to) {
+        ConcurrentSkipListMap<Long, Window> calendar = calendars.get(index);
+        if (calendar == null) {
+            calendar = new ConcurrentSkipListMap<>();
+            calendars.set(index, calendar);  // a volatile write: isHeld sees the map fully built
+        }
+        calendar.put(from, new Window(from, to));
+        windowCount++;
+        reindex(index, type.ordinal());
+    }
+
+    // Drops windows that ended before 'now'; they are ordered, so only the head is checked
+    private void pruneEnded(int index, long now) {
+        ConcurrentSkipListMap<Long, Window> calendar = calendars.get(index);
+        if (calendar == null) {
+            return;
+        }
+        Map.Entry<Long, Window> first;
+        boolean pruned = false;
+        while ((first = calendar.firstEntry()) != null && first.getValue().end <= now) {
+            calendar.remove(first.getKey());
+            windowCount--;
+            pruned = true;
+        }
+        if (pruned) {
+            reindex(index);
+        }
+    }
+
+    private void reindex(int index) {
+        reindex(index, parkingLot.getSlotType(index + 1).ordinal());
+    }
+
+    // Brings the slot's entry in its type's CapacityIndex and reserved set up to date
+    private void reindex(int index, int type) {
+        ConcurrentSkipListMap<Long, Window> calendar = calendars.get(index);
+        if (calendar == null || calendar.isEmpty()) {
+            capacity[type].update(positions[index], CapacityIndex.NEVER, CapacityIndex.NONE);
+            reserved[type].clear(index);
+        } else {
+            capacity[type].update(positions[index], calendar.firstKey(), calendar.lastEntry().getValue().end);
+            reserved[type].set(index);
+        }
+    }
+
+    private static long seconds(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * File: SlotStore.java
+ * Package: com.smartpark
+ * Purpose: Struct-of-arrays storage for all slots of a parking lot
+ */
+
+package com.smartpark;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Holds every slot of a lot in parallel primitive arrays instead of one object per
+ * slot. For slot position i (slot number i + 1):
+ *   - typeCodes[i] is the slot's type code (the ParkingLot.SlotType ordinal)
+ *   - occupancy is the negation of bit i in that type's free-slot bitmap, so the
+ *     bitmap used for allocation is the only record of whether a slot is taken
+ *   - vehicleRefs[i] and customerRefs[i] are IDs in a shared SymbolTable (0 = none)
+ * Steady-state cost is about 9 bytes per slot plus one copy of each distinct
+ * vehicle number and customer ID in use, against roughly 60 bytes per slot for a
+ * Slot object and its list entry.
+ *
+ * occupy() and vacate() are the only state transitions. A slot is claimed by
+ * CAS-clearing its free bit, so exactly one caller wins it; the occupant is written
+ * after the claim. vacate() wins the CAS that sets the bit first and only then
+ * clears the occupant it saw, and only if no new claimant has replaced it.
+ * Available counts, overall and per type, are kept alongside.
+ */
+final class SlotStore {
+    private final int capacity;
+    private final int typeCount;
+    private final byte[] typeCodes;
+    private final FreeSlotIndex[] freeByType;
+    private final AtomicInteger available;
+    private final AtomicInteger[] availableByType;
+    private final int[] totalByType;
+    private final AtomicIntegerArray vehicleRefs;
+    private final AtomicIntegerArray customerRefs;
+    private final SymbolTable symbols;
+
+    /**
+     * @param typeCount number of type codes (at most 127); per-type arrays are indexed by code
+     * @param typeCodes type code of each slot position; all slots start free
+     */
+    SlotStore(int typeCount, byte[] typeCodes) {
+        this.capacity = typeCodes.length;
+        this.typeCount = typeCount;
+        this.typeCodes = typeCodes.clone();
+        this.freeByType = new FreeSlotIndex[typeCount];
+        this.availableByType = new AtomicInteger[typeCount];
+        this.totalByType = new int[typeCount];
+        for (int t = 0; t < typeCount; t++) {
+            freeByType[t] = new FreeSlotIndex(capacity);
+            availableByType[t] = new AtomicInteger();
+        }
+        for (int i = 0; i < capacity; i++) {
+            int type = typeCodes[i];
+            freeByType[type].set(i);
+            totalByType[type]++;
+        }
+        for (int t = 0; t < typeCount; t++) {
+            availableByType[t].set(totalByType[t]);
+        }
+        this.available = new AtomicInteger(capacity);
+        this.vehicleRefs = new AtomicIntegerArray(capacity);
+        this.customerRefs = new AtomicIntegerArray(capacity);
+        this.symbols = new SymbolTable();
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    int typeCount() {
+        return typeCount;
+    }
+
+    int typeCodeAt(int index) {
+        return typeCodes[index];
+    }
+
+    boolean isOccupied(int index) {
+        return !freeByType[typeCodes[index]].get(index);
+    }
+
+    String vehicleAt(int index) {
+        return symbols.get(vehicleRefs.get(index));
+    }
+
+    String customerAt(int index) {
+        return symbols.get(customerRefs.get(index));
+    }
+
+    /** Lowest free position of the given type at or after 'from', or -1. */
+    int nextFree(int typeCode, int from) {
+        return freeByType[typeCode].nextSetBit(from);
+    }
+
+    /** Lowest free position of any type at or after 'from', or -1. */
+    int nextFree(int from) {
+        int best = -1;
+        for (FreeSlotIndex index : freeByType) {
+            int candidate = index.nextSetBit(from);
+            if (candidate >= 0 && (best < 0 || candidate < best)) {
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    /** Claims a free slot for the occupant; false if it was taken (or another caller won). */
+    boolean occupy(int index, String vehicleNumber, String customerId) {
+        int type = typeCodes[index];
+        if (!freeByType[type].clear(index)) {
+            return false;
+        }
+        setOccupant(index, vehicleNumber, customerId);
+        available.decrementAndGet();
+        availableByType[type].decrementAndGet();
+        return true;
+    }
+
+    /** Frees an occupied slot; false if it was already free. */
+    boolean vacate(int index) {
+        int type = typeCodes[index];
+        int vehicle = vehicleRefs.get(index);
+        int customer = customerRefs.get(index);
+        if (!freeByType[type].set(index)) {
+            return false;  // already free, or a concurrent vacate got there first
+        }
+        // The slot may already have been claimed again; a new occupant's strings are left alone
+        clearOccupant(vehicleRefs, index, vehicle);
+        clearOccupant(customerRefs, index, customer);
+        available.incrementAndGet();
+        availableByType[type].incrementAndGet();
+        return true;
+    }
+
+    private void clearOccupant(AtomicIntegerArray refs, int index, int expected) {
+        if (expected != 0 && refs.compareAndSet(index, expected, 0)) {
+            symbols.release(expected);
+        }
+    }
+
+    // Replaces the occupant strings of a slot, keeping the symbol reference counts right
+    void setOccupant(int index, String vehicleNumber, String customerId) {
+        symbols.release(vehicleRefs.getAndSet(index, symbols.acquire(vehicleNumber)));
+        symbols.release(customerRefs.getAndSet(index, symbols.acquire(customerId)));
+    }
+
+    int available() {
+        return available.get();
+    }
+
+    int available(int typeCode) {
+        return availableByType[typeCode].get();
+    }
+
+    int total(int typeCode) {
+        return totalByType[typeCode];
+    }
+
+    /** Distinct vehicle numbers and customer IDs currently stored. */
+    int symbolCount() {
+        return symbols.size();
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * File: SymbolTable.java
+ * Package: com.smartpark
+ * Purpose: Reference-counted string interning table used by SlotStore
+ */
+
+package com.smartpark;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Maps strings (vehicle numbers, customer IDs) to small int IDs so that slot
+ * storage can hold an int per field instead of a reference, and equal strings are
+ * stored once however many slots use them. ID 0 is permanently the empty string.
+ *
+ * Entries are reference counted: {@link #acquire} adds a reference and
+ * {@link #release} drops one. In the common case both are a hash lookup plus one
+ * CAS on the entry's count. An entry whose count drops to zero stays in the table
+ * (a returning vehicle or customer reuses it) until idle entries outnumber the live
+ * ones; then the releasing thread sweeps them out and their IDs are reused, so the
+ * table stays proportional to the strings in use.
+ */
+final class SymbolTable {
+    private static final int CHUNK_BITS = 12;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int MIN_SWEEP_IDLE = 1024;
+    private static final int RECLAIMED = -1;
+
+    private final ConcurrentHashMap<String, Symbol> ids = new ConcurrentHashMap<>();
+    private volatile String[][] chunks;  // ID -> string, grown one chunk at a time
+    private final AtomicInteger idle = new AtomicInteger();  // entries with no references
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+
+    // ID allocation, guarded by 'this'
+    private int nextId = 1;
+    private int[] freeIds = new int[16];
+    private int freeCount;
+
+    private static final class Symbol extends AtomicInteger {  // the value is the reference count
+        private static final long serialVersionUID = 1L;
+
+        final int id;
+
+        Symbol(int id) {
+            super(1);
+            this.id = id;
+        }
+
+        // Adds a reference unless the entry has been reclaimed; reports a 0 -> 1 revival via idle
+        boolean retain(AtomicInteger idle) {
+            while (true) {
+                int references = get();
+                if (references == RECLAIMED) {
+                    return false;
+                }
+                if (compareAndSet(references, references + 1)) {
+                    if (references == 0) {
+                        idle.decrementAndGet();
+                    }
+                    return true;
+                }
+            }
+        }
+    }
+
+    SymbolTable() {
+        String[][] initial = new String[1][];
+        initial[0] = new String[CHUNK_SIZE];
+        initial[0][0] = "";
+        this.chunks = initial;
+    }
+
+    /** Returns the ID for the string, adding one reference to it. */
+    int acquire(String value) {
+        if (value == null || value.isEmpty()) {
+            return 0;
+        }
+        Symbol symbol = ids.get(value);
+        if (symbol != null && symbol.retain(idle)) {
+            return symbol.id;
+        }
+        return ids.compute(value, (key, existing) ->
+                existing != null && existing.retain(idle) ? existing : new Symbol(allocateId(key))).id;
+    }
+
+    /** Drops one reference; the ID must have come from {@link #acquire}. */
+    void release(int id) {
+        if (id == 0) {
+            return;
+        }
+        Symbol symbol = ids.get(get(id));
+        if (symbol == null || symbol.id != id) {
+            return;
+        }
+        if (symbol.decrementAndGet() == 0 && idle.incrementAndGet() > Math.max(MIN_SWEEP_IDLE, ids.size() / 2)) {
+            sweep();
+        }
+    }
+
+    String get(int id) {
+        String[][] current = chunks;
+        int chunk = id >>> CHUNK_BITS;
+        if (chunk >= current.length) {
+            return "";
+        }
+        String value = current[chunk][id & (CHUNK_SIZE - 1)];
+        return value != null ? value : "";
+    }
+
+    /** Number of entries, including idle ones not yet swept. */
+    int size() {
+        return ids.size();
+    }
+
+    // Removes idle entries; an entry is only reclaimed if its count is still zero
+    private void sweep() {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            for (Symbol symbol : ids.values()) {
+                if (symbol.compareAndSet(0, RECLAIMED)) {
+                    idle.decrementAndGet();
+                    String value = get(symbol.id);
+                    ids.remove(value, symbol);  // fails harmlessly if acquire already replaced it
+                    freeId(symbol.id);
+                }
+            }
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    private synchronized int allocateId(String value) {
+        int id = freeCount > 0 ? freeIds[--freeCount] : nextId++;
+        int chunk = id >>> CHUNK_BITS;
+        String[][] current = chunks;
+        if (chunk >= current.length) {
+            String[][] grown = new String[current.length * 2][];
+            System.arraycopy(current, 0, grown, 0, current.length);
+            for (int i = current.length; i < grown.length; i++) {
+                grown[i] = new String[CHUNK_SIZE];
+            }
+            chunks = grown;  // chunk arrays are shared, so earlier writes stay visible
+            current = grown;
+        }
+        current[chunk][id & (CHUNK_SIZE - 1)] = value;
+        return id;
+    }
+
+    private synchronized void freeId(int id) {
+        chunks[id >>> CHUNK_BITS][id & (CHUNK_SIZE - 1)] = null;
+        if (freeCount == freeIds.length) {
+            int[] grown = new int[freeIds.length * 2];
+            System.arraycopy(freeIds, 0, grown, 0, freeCount);
+            freeIds = grown;
+        }
+        freeIds[freeCount++] = id;
+    }
+}
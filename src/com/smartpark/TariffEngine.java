@@ -0,0 +1,215 @@
+/*
+ * File: TariffEngine.java
+ * Package: com.smartpark
+ * Purpose: Parking prices by slot type, time of day and weekday, compiled into
+ *          per-minute lookup tables
+ * Requirements: #1 (Nested classes), #9 (Method overloading)
+ */
+
+package com.smartpark;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Prices a stay to the minute from a set of Rules:
+ *   - an hourly base rate per slot type
+ *   - multipliers for bands of the day (e.g. 08:00-10:00 x1.5, 22:00-06:00 x0.5),
+ *     optionally on chosen days only, and for the weekend
+ *   - a grace period: stays no longer than it are free
+ *   - a minimum charge: shorter stays are billed as this long
+ *
+ * The rules are compiled once, in the constructor, into a table per slot type
+ * holding the running total of the rate over every minute of the week. The
+ * price of any stretch is then the difference of two entries. A whole week
+ * costs the table's last entry, and a stretch across the week boundary costs
+ * two differences. Pricing a stay is a few array lookups however many bands it
+ * spans, which matters when a nightly run prices thousands of bookings.
+ *
+ * Where rules overlap, the one added later sets the multiplier for that minute.
+ * Amounts are kept in paise (1/100 rupee) per hour in the table and rounded to
+ * the paisa once per stay. An engine never changes after construction and can
+ * be shared between threads.
+ */
+public final class TariffEngine {
+    public static final int MINUTES_PER_WEEK = 7 * 24 * 60;
+
+    // Rs. 50 an hour for any slot type, billed by the minute with a one-hour minimum
+    public static final TariffEngine FLAT = new TariffEngine(new Rules("Flat").baseRate(50.0)
+            .minimum(Duration.ofHours(1)));
+
+    private final String name;
+    private final long[][] prefix;      // by slot type: prefix[m] = sum of hourly paise over minutes [0, m) of the week
+    private final long graceMinutes;
+    private final long minimumMinutes;
+
+    /**
+     * REQUIREMENT #1: Static nested class - the rules before they are compiled.
+     * Each method records one rule and returns this, so a tariff reads as one expression.
+     */
+    public static final class Rules {
+        private final String name;
+        private final double[] hourlyRates = new double[ParkingLot.SlotType.values().length];
+        private final List<Band> bands = new ArrayList<>();
+        private Duration grace = Duration.ZERO;
+        private Duration minimum = Duration.ZERO;
+
+        public Rules(String name) {
+            this.name = name;
+        }
+
+        // REQUIREMENT #9: Method overloading (Case 1 - one hourly rate for every slot type)
+        public Rules baseRate(double hourlyRate) {
+            Arrays.fill(hourlyRates, hourlyRate);
+            return this;
+        }
+
+        // REQUIREMENT #9: Method overloading (Case 2 - hourly rate for one slot type)
+        public Rules baseRate(ParkingLot.SlotType slotType, double hourlyRate) {
+            hourlyRates[slotType.ordinal()] = hourlyRate;
+            return this;
+        }
+
+        // REQUIREMENT #9: Method overloading (Case 3 - a band of every day; from after to wraps past midnight)
+        public Rules band(LocalTime from, LocalTime to, double multiplier) {
+            return band(EnumSet.allOf(DayOfWeek.class), from, to, multiplier);
+        }
+
+        // REQUIREMENT #9: Method overloading (Case 4 - a band starting on the given days)
+        public Rules band(Set<DayOfWeek> days, LocalTime from, LocalTime to, double multiplier) {
+            bands.add(new Band(EnumSet.copyOf(days), from, to, multiplier));
+            return this;
+        }
+
+        // All of Saturday and Sunday
+        public Rules weekend(double multiplier) {
+            return band(EnumSet.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY), LocalTime.MIDNIGHT, LocalTime.MIDNIGHT,
+                    multiplier);
+        }
+
+        public Rules grace(Duration grace) {
+            this.grace = grace;
+            return this;
+        }
+
+        public Rules minimum(Duration minimum) {
+            this.minimum = minimum;
+            return this;
+        }
+    }
+
+    // REQUIREMENT #1: Static nested class - one multiplier over part of the day
+    private static final class Band {
+        final Set<DayOfWeek> days;
+        final int fromMinute;
+        final int toMinute;  // equal to fromMinute for a whole day
+        final double multiplier;
+
+        Band(Set<DayOfWeek> days, LocalTime from, LocalTime to, double multiplier) {
+            this.days = days;
+            this.fromMinute = from.getHour() * 60 + from.getMinute();
+            this.toMinute = to.getHour() * 60 + to.getMinute();
+            this.multiplier = multiplier;
+        }
+
+        int length() {
+            int length = Math.floorMod(toMinute - fromMinute, 24 * 60);
+            return length == 0 ? 24 * 60 : length;
+        }
+    }
+
+    // Compiles the rules into the per-minute tables
+    public TariffEngine(Rules rules) {
+        this.name = rules.name;
+        this.graceMinutes = rules.grace.toMinutes();
+        this.minimumMinutes = rules.minimum.toMinutes();
+
+        double[] multipliers = new double[MINUTES_PER_WEEK];
+        Arrays.fill(multipliers, 1.0);
+        for (Band band : rules.bands) {
+            for (DayOfWeek day : band.days) {
+                int start = (day.getValue() - 1) * 24 * 60 + band.fromMinute;  // the week starts on Monday
+                for (int i = 0, length = band.length(); i < length; i++) {
+                    multipliers[(start + i) % MINUTES_PER_WEEK] = band.multiplier;
+                }
+            }
+        }
+
+        this.prefix = new long[rules.hourlyRates.length][MINUTES_PER_WEEK + 1];
+        for (int type = 0; type < prefix.length; type++) {
+            long[] sums = prefix[type];
+            double hourlyPaise = rules.hourlyRates[type] * 100;
+            for (int m = 0; m < MINUTES_PER_WEEK; m++) {
+                sums[m + 1] = sums[m] + Math.round(hourlyPaise * multipliers[m]);
+            }
+        }
+    }
+
+    // REQUIREMENT #9: Method overloading (Case 5 - fare for a stay, in rupees)
+    public double calculateFare(LocalDateTime checkIn, LocalDateTime checkOut, ParkingLot.SlotType slotType) {
+        return calculatePaise(checkIn, checkOut, slotType) / 100.0;
+    }
+
+    // REQUIREMENT #9: Method overloading (Case 6 - fare for whole hours from a start time, in rupees)
+    public double calculateFare(LocalDateTime checkIn, int hours, ParkingLot.SlotType slotType) {
+        return calculateFare(checkIn, checkIn.plusHours(hours), slotType);
+    }
+
+    /**
+     * Fare in paise. A started minute counts as a whole one; a stay within the grace
+     * period is free, and one shorter than the minimum is billed as the minimum
+     * from its check-in.
+     */
+    public long calculatePaise(LocalDateTime checkIn, LocalDateTime checkOut, ParkingLot.SlotType slotType) {
+        long seconds = ChronoUnit.SECONDS.between(checkIn, checkOut);
+        long minutes = (seconds + 59) / 60;
+        if (minutes <= graceMinutes) {
+            return 0;
+        }
+        minutes = Math.max(minutes, minimumMinutes);
+        long[] sums = prefix[slotType == null ? 0 : slotType.ordinal()];
+
+        int start = (checkIn.getDayOfWeek().getValue() - 1) * 24 * 60 + checkIn.getHour() * 60 + checkIn.getMinute();
+        long weeks = minutes / MINUTES_PER_WEEK;
+        int rest = (int) (minutes % MINUTES_PER_WEEK);
+        long hourlyPaiseMinutes = weeks * sums[MINUTES_PER_WEEK];
+        if (start + rest <= MINUTES_PER_WEEK) {
+            hourlyPaiseMinutes += sums[start + rest] - sums[start];
+        } else {
+            hourlyPaiseMinutes += sums[MINUTES_PER_WEEK] - sums[start] + sums[start + rest - MINUTES_PER_WEEK];
+        }
+        return Math.round(hourlyPaiseMinutes / 60.0);  // each minute bills 1/60 of its hourly rate
+    }
+
+    // Hourly rate in force at the given minute for the slot type, in rupees
+    public double getHourlyRate(LocalDateTime at, ParkingLot.SlotType slotType) {
+        long[] sums = prefix[slotType == null ? 0 : slotType.ordinal()];
+        int minute = (at.getDayOfWeek().getValue() - 1) * 24 * 60 + at.getHour() * 60 + at.getMinute();
+        return (sums[minute + 1] - sums[minute]) / 100.0;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Duration getGracePeriod() {
+        return Duration.ofMinutes(graceMinutes);
+    }
+
+    public Duration getMinimumCharge() {
+        return Duration.ofMinutes(minimumMinutes);
+    }
+
+    @Override
+    public String toString() {
+        return "TariffEngine{name='" + name + "', grace=" + graceMinutes + "min, minimum=" + minimumMinutes + "min}";
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * File: Bench.java
+ * Package: com.smartpark.bench
+ * Purpose: Minimal self-contained microbenchmark harness (warmup, measurement, ns/op)
+ */
+
+package com.smartpark.bench;
+
+/**
+ * A small JMH-style harness with no dependencies. Each benchmark runs a number of
+ * timed warmup iterations, then measurement iterations; an iteration calls the
+ * operation in batches until its time budget is used up. Results are reported as
+ * average time per operation with the spread across iterations. Return values are
+ * folded into a volatile sink so the JIT cannot discard the work.
+ */
+final class Bench {
+    /** One benchmarked operation; the return value is consumed by the harness. */
+    interface Op {
+        long run() throws Exception;
+    }
+
+    private static volatile long sink;
+
+    private final int warmupIterations;
+    private final int measurementIterations;
+    private final long iterationNanos;
+    private final String filter;
+
+    Bench(int warmupIterations, int measurementIterations, long iterationMillis, String filter) {
+        this.warmupIterations = warmupIterations;
+        this.measurementIterations = measurementIterations;
+        this.iterationNanos = iterationMillis * 1_000_000L;
+        this.filter = filter;
+    }
+
+    boolean selected(String name) {
+        return filter == null || name.contains(filter);
+    }
+
+    void run(String name, Op op) throws Exception {
+        if (!selected(name)) {
+            return;
+        }
+        int batch = calibrate(op);
+        for (int i = 0; i < warmupIterations; i++) {
+            iteration(op, batch);
+        }
+        double[] nsPerOp = new double[measurementIterations];
+        for (int i = 0; i < measurementIterations; i++) {
+            nsPerOp[i] = iteration(op, batch);
+        }
+
+        double mean = 0;
+        for (double v : nsPerOp) {
+            mean += v;
+        }
+        mean /= nsPerOp.length;
+        double variance = 0;
+        for (double v : nsPerOp) {
+            variance += (v - mean) * (v - mean);
+        }
+        double stdev = nsPerOp.length > 1 ? Math.sqrt(variance / (nsPerOp.length - 1)) : 0;
+
+        String line = String.format("%-72s %14s +- %-14s %14s ops/s",
+                name, formatTime(mean), formatTime(stdev), String.format("%,.0f", 1e9 / mean));
+        System.out.println(line);
+    }
+
+    // Grow the batch until one batch takes at least ~1 ms (or a single op is slower than that)
+    private int calibrate(Op op) throws Exception {
+        int batch = 1;
+        while (batch < (1 << 24)) {
+            long start = System.nanoTime();
+            runBatch(op, batch);
+            if (System.nanoTime() - start >= 1_000_000L) {
+                break;
+            }
+            batch <<= 1;
+        }
+        return batch;
+    }
+
+    private double iteration(Op op, int batch) throws Exception {
+        long ops = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            runBatch(op, batch);
+            ops += batch;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < iterationNanos);
+        return (double) elapsed / ops;
+    }
+
+    private static void runBatch(Op op, int batch) throws Exception {
+        long acc = 0;
+        for (int i = 0; i < batch; i++) {
+            acc += op.run();
+        }
+        sink += acc;
+    }
+
+    private static String formatTime(double nanos) {
+        if (nanos >= 1e9) {
+            return String.format("%.3f s/op", nanos / 1e9);
+        } else if (nanos >= 1e6) {
+            return String.format("%.3f ms/op", nanos / 1e6);
+        } else if (nanos >= 1e3) {
+            return String.format("%.3f us/op", nanos / 1e3);
+        }
+        return String.format("%.1f ns/op", nanos);
+    }
+}
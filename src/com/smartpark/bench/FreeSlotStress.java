@@ -0,0 +1,247 @@
+/*
+ * File: FreeSlotStress.java
+ * Package: com.smartpark.bench
+ * Purpose: Concurrent stress harness for the CAS free-slot bitmap behind ParkingLot allocation
+ */
+
+package com.smartpark.bench;
+
+import com.smartpark.ParkingLot;
+import com.smartpark.exceptions.NoAvailableSlotException;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hammers the lock-free free-slot bitmap (FreeSlotIndex, through ParkingLot's
+ * allocateSlot and deallocateSlot) from many threads and checks its guarantees:
+ *   1. churn: the lot is pre-filled at random to the given occupancy, so free
+ *      slots are scattered across words and the summary bits above them flip all
+ *      the time; each thread then allocates any slot and releases it again,
+ *      keeping a few at once and releasing them in random order. Every slot won
+ *      is recorded in an owner table, so a slot handed to two threads at once is
+ *      caught. There is always a free slot left, so "lot full" means a free slot
+ *      was hidden by a stale summary bit.
+ *   2. race: in each round every thread tries to take the same slot by number;
+ *      exactly one may win.
+ *   3. audit: once everything is released, the counts must be back to the total
+ *      and allocating slot after slot must hand out every slot exactly once.
+ * A non-concurrent lot is used, so all threads start from the lowest free slot
+ * and fight over the same words.
+ *
+ * Usage: java -cp bin com.smartpark.bench.FreeSlotStress
+ *            [threads] [seconds] [slots] [occupancy] [race-rounds]
+ * Defaults: 8 threads, 10 seconds, 100,000 slots, 95% occupancy, 10,000 rounds.
+ * Exits with status 1 if any check fails.
+ */
+public class FreeSlotStress {
+    private static final int HOLD = 4;        // slots one churn thread keeps at a time
+    private static final int PREFILL = -1;    // owner of the prefilled slots
+
+    private final ParkingLot parkingLot;
+    private final int slots;
+    private final int threads;
+    private final AtomicIntegerArray owners;  // by slot index: 0, the owning thread + 1, or PREFILL
+    private final AtomicLong failures = new AtomicLong();
+    private volatile boolean running = true;
+
+    public FreeSlotStress(int slots, int threads) {
+        this.parkingLot = new ParkingLot("STRESS", slots);
+        this.slots = slots;
+        this.threads = threads;
+        this.owners = new AtomicIntegerArray(slots);
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int slots = args.length > 2 ? Integer.parseInt(args[2]) : 100_000;
+        double occupancy = args.length > 3 ? Double.parseDouble(args[3]) : 0.95;
+        int rounds = args.length > 4 ? Integer.parseInt(args[4]) : 10_000;
+
+        System.out.println("=== FREE-SLOT BITMAP STRESS ===");
+        System.out.printf("Threads: %d, Duration: %ds, Slots: %,d, Occupancy: %.0f%%, Race rounds: %,d%n",
+                threads, seconds, slots, occupancy * 100, rounds);
+        FreeSlotStress stress = new FreeSlotStress(slots, threads);
+        boolean passed = stress.run(seconds, occupancy, rounds);
+        System.out.println(passed ? "PASSED" : "FAILED");
+        if (!passed) {
+            System.exit(1);
+        }
+    }
+
+    public boolean run(int seconds, double occupancy, int rounds) throws InterruptedException {
+        List<Integer> prefilled = prefill(occupancy);
+        churn(seconds);
+        for (int number : prefilled) {
+            release(number, PREFILL);
+        }
+        race(rounds);
+        audit();
+        return failures.get() == 0;
+    }
+
+    // Occupies a random set of slots, leaving room for every churn thread to hold HOLD slots
+    private List<Integer> prefill(double occupancy) {
+        int count = Math.min((int) (slots * occupancy), slots - threads * HOLD - 1);
+        List<Integer> numbers = new ArrayList<>(slots);
+        for (int number = 1; number <= slots; number++) {
+            numbers.add(number);
+        }
+        Collections.shuffle(numbers, new Random(42));
+        List<Integer> prefilled = new ArrayList<>(numbers.subList(0, Math.max(0, count)));
+        for (int number : prefilled) {
+            take(number);
+        }
+        System.out.printf("Prefilled %,d of %,d slots%n", prefilled.size(), slots);
+        return prefilled;
+    }
+
+    private void churn(int seconds) throws InterruptedException {
+        AtomicLong operations = new AtomicLong();
+        AtomicLong falseFull = new AtomicLong();
+        Thread[] pool = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int owner = t + 1;
+            pool[t] = new Thread(() -> {
+                SplittableRandom random = new SplittableRandom(owner);
+                int[] held = new int[HOLD];
+                int count = 0;
+                long ops = 0;
+                while (running) {
+                    if (count == HOLD || (count > 0 && random.nextBoolean())) {
+                        int pick = random.nextInt(count);
+                        release(held[pick], owner);
+                        held[pick] = held[--count];
+                    } else {
+                        try {
+                            int number = parkingLot.allocateSlot("STRESS", "T" + owner).getSlotNumber();
+                            claim(number, owner);
+                            held[count++] = number;
+                        } catch (NoAvailableSlotException e) {
+                            falseFull.incrementAndGet();  // a free slot always exists here
+                        }
+                    }
+                    ops++;
+                }
+                while (count > 0) {
+                    release(held[--count], owner);
+                }
+                operations.addAndGet(ops);
+            }, "churn-" + t);
+            pool[t].start();
+        }
+        Thread.sleep(seconds * 1000L);
+        running = false;
+        for (Thread thread : pool) {
+            thread.join();
+        }
+        check(falseFull.get() == 0, falseFull.get() + " allocation(s) saw a full lot with slots free");
+        System.out.printf("Churn: %,d operations (%,.0f ops/s)%n", operations.get(),
+                operations.get() / (double) seconds);
+    }
+
+    // Every thread goes for the same slot in each round; exactly one must get it
+    private void race(int rounds) throws InterruptedException {
+        AtomicInteger winners = new AtomicInteger();
+        AtomicLong badRounds = new AtomicLong();
+        CyclicBarrier start = new CyclicBarrier(threads);
+        CyclicBarrier end = new CyclicBarrier(threads, () -> {
+            if (winners.getAndSet(0) != 1) {
+                badRounds.incrementAndGet();
+            }
+        });
+        Thread[] pool = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int owner = t + 1;
+            pool[t] = new Thread(() -> {
+                try {
+                    for (int round = 0; round < rounds; round++) {
+                        int number = 1 + (int) ((round * 2_654_435_761L) % slots);  // spread over the lot
+                        start.await();
+                        try {
+                            parkingLot.allocateSlot(number, "STRESS", "T" + owner);
+                            claim(number, owner);
+                            winners.incrementAndGet();
+                        } catch (NoAvailableSlotException e) {
+                            // lost this round
+                        }
+                        end.await();
+                        if (owners.get(number - 1) == owner) {
+                            release(number, owner);
+                        }
+                    }
+                } catch (InterruptedException | BrokenBarrierException e) {
+                    failures.incrementAndGet();
+                    System.err.println("Error in race thread " + owner + ": " + e);
+                }
+            }, "race-" + t);
+            pool[t].start();
+        }
+        for (Thread thread : pool) {
+            thread.join();
+        }
+        check(badRounds.get() == 0, badRounds.get() + " race round(s) without exactly one winner");
+        System.out.printf("Race: %,d rounds of %d threads%n", rounds, threads);
+    }
+
+    // With every slot released, the counts and the bitmap must agree on a fully free lot
+    private void audit() {
+        check(parkingLot.getMonitor().getAvailableSlots() == slots,
+                "available count " + parkingLot.getMonitor().getAvailableSlots() + " after releasing everything");
+        BitSet handedOut = new BitSet(slots + 1);
+        for (int i = 0; i < slots; i++) {
+            try {
+                int number = parkingLot.allocateSlot("AUDIT", "AUDIT").getSlotNumber();
+                check(!handedOut.get(number), "slot " + number + " handed out twice in the audit");
+                handedOut.set(number);
+            } catch (NoAvailableSlotException e) {
+                check(false, "lot full after " + i + " of " + slots + " audit allocations");
+                break;
+            }
+        }
+        try {
+            parkingLot.allocateSlot("AUDIT", "AUDIT");
+            check(false, "allocation succeeded on a full lot");
+        } catch (NoAvailableSlotException e) {
+            // expected
+        }
+        System.out.printf("Audit: %,d slots handed out once each%n", handedOut.cardinality());
+    }
+
+    private void take(int number) {
+        try {
+            parkingLot.allocateSlot(number, "STRESS", "PREFILL");
+            claim(number, PREFILL);
+        } catch (NoAvailableSlotException e) {
+            check(false, "could not prefill slot " + number + ": " + e.getMessage());
+        }
+    }
+
+    private void claim(int number, int owner) {
+        int previous = owners.getAndSet(number - 1, owner);
+        check(previous == 0, "slot " + number + " won by thread " + owner + " while held by " + previous);
+    }
+
+    // Clears ownership before the slot goes back, so the next winner finds it unowned
+    private void release(int number, int owner) {
+        check(owners.compareAndSet(number - 1, owner, 0), "slot " + number + " released by non-owner " + owner);
+        parkingLot.deallocateSlot(number);
+    }
+
+    private void check(boolean condition, String message) {
+        if (!condition) {
+            failures.incrementAndGet();
+            System.err.println("Error: " + message);
+        }
+    }
+}
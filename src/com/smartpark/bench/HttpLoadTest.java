@@ -0,0 +1,257 @@
+/*
+ * File: HttpLoadTest.java
+ * Package: com.smartpark.bench
+ * Purpose: Local load test for the HTTP API with thousands of concurrent requests in flight
+ */
+
+package com.smartpark.bench;
+
+import com.smartpark.BookingRepository;
+import com.smartpark.ParkingLot;
+import com.smartpark.ParkingService;
+import com.smartpark.http.ParkingServer;
+import com.smartpark.utils.Logger;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drives the HTTP API with a fixed number of simulated clients, each keeping one
+ * request in flight at all times: check in (or book), check out (or cancel), and
+ * now and then read the availability. The client side is fully asynchronous
+ * (java.net.http.HttpClient.sendAsync on a small pool), so thousands of requests
+ * can be outstanding without thousands of client threads.
+ *
+ * Without a base URL the test starts its own ParkingServer in this JVM, so the
+ * reported heap and thread counts cover both sides; run it with a small heap
+ * (e.g. -Xmx128m) to check that the server holds up. The report gives ops/s and
+ * p50/p99/p999 per endpoint, error counts, the peak number of requests in flight,
+ * and heap and thread usage.
+ *
+ * Usage: java -Xmx128m -cp bin com.smartpark.bench.HttpLoadTest
+ *            [clients] [seconds] [slots] [base-url]
+ * Defaults: 2,000 clients, 10 seconds, 50,000 slots, in-process server.
+ */
+public class HttpLoadTest {
+    private static final double BOOKING_SHARE = 0.30;
+    private static final double CANCEL_SHARE = 0.10;
+    private static final int AVAILABILITY_EVERY = 10;  // one GET /slots per this many cycles
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    /** Endpoints in report order; the ordinal indexes the stats arrays. */
+    private enum Call {
+        CHECK_IN("POST /checkin"), BOOK("POST /bookings"), CHECK_OUT("POST /checkout"),
+        CANCEL("POST /cancel"), SLOTS("GET /slots");
+
+        private final String label;
+
+        Call(String label) {
+            this.label = label;
+        }
+    }
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final LatencyHistogram[] latencies = new LatencyHistogram[Call.values().length];
+    private final AtomicLong[] errors = new AtomicLong[Call.values().length];
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private volatile boolean running = true;
+    private volatile boolean measuring;
+
+    public HttpLoadTest(HttpClient client, String baseUrl) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = new LatencyHistogram();
+            errors[i] = new AtomicLong();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int slots = args.length > 2 ? Integer.parseInt(args[2]) : 50_000;
+        String baseUrl = args.length > 3 ? args[3] : null;
+
+        ParkingServer server = null;
+        if (baseUrl == null) {
+            ParkingService parkingService = new ParkingService(new ParkingLot("LOAD", slots, true),
+                    new BookingRepository(), null, new Logger());
+            server = new ParkingServer(parkingService, new InetSocketAddress("127.0.0.1", 0), clients * 2);
+            server.start();
+            baseUrl = "http://127.0.0.1:" + server.getPort();
+        }
+
+        System.out.println("=== SMART PARKING HTTP LOAD TEST ===");
+        System.out.printf("Clients: %,d, Duration: %ds, Target: %s%s, Max heap: %,d MB%n", clients, seconds, baseUrl,
+                server == null ? "" : server.isUsingVirtualThreads() ? " (virtual threads)" : " (platform thread pool)",
+                Runtime.getRuntime().maxMemory() >> 20);
+
+        ExecutorService clientPool = Executors.newFixedThreadPool(
+                Math.max(2, Runtime.getRuntime().availableProcessors()), task -> {
+                    Thread thread = new Thread(task, "http-load-client");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(REQUEST_TIMEOUT)
+                .executor(clientPool)
+                .build();
+        try {
+            new HttpLoadTest(client, baseUrl).run(clients, seconds);
+        } finally {
+            if (server != null) {
+                server.stop(0);
+            }
+            clientPool.shutdownNow();
+        }
+    }
+
+    public void run(int clients, int seconds) throws InterruptedException {
+        CountDownLatch finished = new CountDownLatch(clients);
+        for (int i = 0; i < clients; i++) {
+            cycle(i, 0, finished);
+        }
+
+        Thread.sleep(Math.min(2000, seconds * 200L));  // warmup
+        resetPeak();
+        measuring = true;
+        long start = System.nanoTime();
+        long peakThreads = 0;
+        long peakHeap = 0;
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long end = start + TimeUnit.SECONDS.toNanos(seconds);
+        while (System.nanoTime() < end) {
+            Thread.sleep(100);
+            peakThreads = Math.max(peakThreads, Thread.activeCount());
+            peakHeap = Math.max(peakHeap, memory.getHeapMemoryUsage().getUsed());
+        }
+        measuring = false;
+        long elapsed = System.nanoTime() - start;
+        running = false;
+        if (!finished.await(REQUEST_TIMEOUT.getSeconds(), TimeUnit.SECONDS)) {
+            System.err.println("Error: " + finished.getCount() + " clients did not finish in time");
+        }
+
+        report(elapsed, peakThreads, peakHeap);
+    }
+
+    // One client's loop: arrive, leave, sometimes read availability, repeat until stopped
+    private void cycle(int clientId, long iteration, CountDownLatch finished) {
+        if (!running) {
+            finished.countDown();
+            return;
+        }
+        String vehicle = "MH-" + clientId + "-" + iteration;
+        String customer = "CUST-" + clientId;
+        boolean booking = ThreadLocalRandom.current().nextDouble() < BOOKING_SHARE;
+        Call arrive = booking ? Call.BOOK : Call.CHECK_IN;
+        String arrivePath = booking ? "/bookings" : "/checkin";
+
+        send(arrive, arrivePath, "vehicle=" + vehicle + "&customer=" + customer)
+                .thenCompose(body -> {
+                    String bookingId = body != null ? stringField(body, "bookingId") : null;
+                    if (bookingId == null) {
+                        return CompletableFuture.completedFuture((String) null);
+                    }
+                    boolean cancel = booking && ThreadLocalRandom.current().nextDouble() < CANCEL_SHARE;
+                    return cancel
+                            ? send(Call.CANCEL, "/cancel", "booking=" + bookingId + "&customer=" + customer)
+                            : send(Call.CHECK_OUT, "/checkout", "booking=" + bookingId);
+                })
+                .thenCompose(body -> iteration % AVAILABILITY_EVERY == 0
+                        ? send(Call.SLOTS, "/slots", null)
+                        : CompletableFuture.completedFuture(body))
+                .whenComplete((body, error) -> cycle(clientId, iteration + 1, finished));
+    }
+
+    // Sends one request; completes with the body on 2xx, or null after counting an error
+    private CompletableFuture<String> send(Call call, String path, String form) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(REQUEST_TIMEOUT);
+        if (form != null) {
+            request.header("Content-Type", "application/x-www-form-urlencoded")
+                    .POST(HttpRequest.BodyPublishers.ofString(form));
+        } else {
+            request.GET();
+        }
+
+        int current = inFlight.incrementAndGet();
+        peakInFlight.accumulateAndGet(current, Math::max);
+        long start = System.nanoTime();
+        return client.sendAsync(request.build(), HttpResponse.BodyHandlers.ofString())
+                .handle((response, error) -> {
+                    long nanos = System.nanoTime() - start;
+                    inFlight.decrementAndGet();
+                    boolean ok = error == null && response.statusCode() / 100 == 2;
+                    if (measuring) {
+                        LatencyHistogram histogram = latencies[call.ordinal()];
+                        synchronized (histogram) {
+                            histogram.record(nanos);
+                        }
+                        if (!ok) {
+                            errors[call.ordinal()].incrementAndGet();
+                        }
+                    }
+                    return ok ? response.body() : null;
+                });
+    }
+
+    private void resetPeak() {
+        peakInFlight.set(inFlight.get());
+    }
+
+    private void report(long elapsedNanos, long peakThreads, long peakHeap) {
+        double seconds = elapsedNanos / 1e9;
+        long total = 0;
+        System.out.printf("%n%-16s %12s %12s %10s %10s %10s %10s %10s%n",
+                "endpoint", "requests", "req/s", "p50", "p99", "p999", "max", "errors");
+        for (Call call : Call.values()) {
+            LatencyHistogram histogram = latencies[call.ordinal()];
+            synchronized (histogram) {
+                total += histogram.count();
+                System.out.printf("%-16s %,12d %,12.0f %10s %10s %10s %10s %,10d%n",
+                        call.label, histogram.count(), histogram.count() / seconds,
+                        millis(histogram.percentile(50)), millis(histogram.percentile(99)),
+                        millis(histogram.percentile(99.9)), millis(histogram.max()),
+                        errors[call.ordinal()].get());
+            }
+        }
+        System.out.printf("%-16s %,12d %,12.0f%n", "total", total, total / seconds);
+
+        System.out.printf("%nPeak requests in flight: %,d%n", peakInFlight.get());
+        System.out.printf("Peak live threads: %,d%n", peakThreads);
+        System.out.printf("Peak heap used: %,d MB of %,d MB max%n", peakHeap >> 20, Runtime.getRuntime().maxMemory() >> 20);
+    }
+
+    // Value of a top-level string member in a flat JSON object, or null
+    private static String stringField(String json, String name) {
+        String key = "\"" + name + "\":\"";
+        int start = json.indexOf(key);
+        if (start < 0) {
+            return null;
+        }
+        start += key.length();
+        int end = json.indexOf('"', start);
+        return end > start ? json.substring(start, end) : null;
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.2f ms", nanos / 1e6);
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * File: LatencyHistogram.java
+ * Package: com.smartpark.bench
+ * Purpose: Fixed-size log-linear latency histogram for percentile reporting
+ */
+
+package com.smartpark.bench;
+
+/**
+ * Records nanosecond latencies into log-linear buckets: values are grouped by
+ * power of two, and each power of two is split into 32 linear sub-buckets, giving
+ * about 3% relative error with a fixed 2 KiB footprint and no allocation per
+ * sample. Not thread-safe; keep one per thread and {@link #merge} at the end.
+ */
+final class LatencyHistogram {
+    private static final int SUB_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+    private final long[] counts = new long[64 * SUB_BUCKETS];
+    private long total;
+    private long max;
+
+    void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts[bucket(value)]++;
+        total++;
+        max = Math.max(max, value);
+    }
+
+    void merge(LatencyHistogram other) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        total += other.total;
+        max = Math.max(max, other.max);
+    }
+
+    long count() {
+        return total;
+    }
+
+    long max() {
+        return max;
+    }
+
+    /** Upper bound of the bucket holding the given percentile (0-100). */
+    long percentile(double percent) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * percent / 100.0);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= Math.max(1, rank)) {
+                return Math.min(upperBound(i), max);
+            }
+        }
+        return max;
+    }
+
+    private static int bucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(value);  // >= SUB_BITS
+        int sub = (int) (value >>> (magnitude - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return (magnitude - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    private static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int magnitude = bucket / SUB_BUCKETS + SUB_BITS - 1;
+        long sub = bucket % SUB_BUCKETS;
+        long width = 1L << (magnitude - SUB_BITS);
+        return ((SUB_BUCKETS + sub) << (magnitude - SUB_BITS)) + width - 1;
+    }
+}
@@ -0,0 +1,291 @@
+/*
+ * File: LoadGenerator.java
+ * Package: com.smartpark.bench
+ * Purpose: Headless multi-threaded driver for the check-in, check-out, booking and cancellation flows
+ */
+
+package com.smartpark.bench;
+
+import com.smartpark.Booking;
+import com.smartpark.BookingRepository;
+import com.smartpark.ParkingLot;
+import com.smartpark.ParkingService;
+import com.smartpark.io.DataStore;
+import com.smartpark.utils.Logger;
+
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Replays synthetic garage traffic through a ParkingService backed by a concurrent
+ * ParkingLot, i.e. the same check-in, booking, check-out and cancellation code that
+ * Main's menus call, without the console.
+ *
+ * Each worker thread simulates its own stream of vehicles in compressed time:
+ * arrivals are Poisson (exponential gaps) and stays are exponential with a mean
+ * of MEAN_STAY_MINUTES, with the arrival rate chosen so the offered load matches
+ * the requested occupancy. Arrivals are walk-in check-ins or customer bookings;
+ * departures are check-outs, or cancellations for some bookings. Events are
+ * processed as fast as the system allows, so the result is the saturated
+ * throughput for that traffic mix.
+ *
+ * After a warmup period, every operation's latency is recorded per thread and
+ * merged at the end. The report gives ops/s and p50/p99/p999 per operation, the
+ * rejection count (lot full), the final occupancy, and a consistency check that
+ * no slot was ever handed to two vehicles at once.
+ *
+ * Usage: java -cp bin com.smartpark.bench.LoadGenerator
+ *            [threads] [seconds] [slots] [occupancy] [journal-dir]
+ * Defaults: 4 threads, 10 seconds, 10,000 slots, 0.85 occupancy, no journal.
+ * With a journal directory, bookings and payments are also appended to a
+ * journaled DataStore there, as Main does.
+ */
+public class LoadGenerator {
+    private static final double MEAN_STAY_MINUTES = 120.0;
+    private static final double BOOKING_SHARE = 0.30;       // arrivals that are customer bookings
+    private static final double CANCEL_SHARE = 0.10;        // bookings that end in a cancellation
+    private static final ParkingLot.SlotType[] SLOT_TYPES = ParkingLot.SlotType.values();
+    private static final long WARMUP_NANOS = 2_000_000_000L;
+
+    /** Operations in report order; the ordinal indexes the per-thread arrays. */
+    private enum Operation {
+        CHECK_IN("check-in"), BOOK("book"), CHECK_OUT("check-out"), CANCEL("cancel");
+
+        private final String label;
+
+        Operation(String label) {
+            this.label = label;
+        }
+    }
+
+    private final ParkingLot parkingLot;
+    private final BookingRepository bookingRepository;
+    private final DataStore dataStore;  // null unless journaling
+    private final ParkingService parkingService;
+    private final AtomicIntegerArray holders;  // 0 = free, otherwise the holding worker's id
+    private final double arrivalsPerMinute;    // per thread
+    private volatile boolean running = true;
+    private volatile boolean measuring;
+
+    // Departures pending in a worker's simulated timeline
+    private static final class Departure implements Comparable<Departure> {
+        final double arrival;
+        final double time;
+        final Booking booking;
+        final boolean cancel;
+
+        Departure(double arrival, double time, Booking booking, boolean cancel) {
+            this.arrival = arrival;
+            this.time = time;
+            this.booking = booking;
+            this.cancel = cancel;
+        }
+
+        @Override
+        public int compareTo(Departure other) {
+            return Double.compare(time, other.time);
+        }
+    }
+
+    private final class Worker implements Runnable {
+        final int id;
+        final SplittableRandom random;
+        final PriorityQueue<Departure> departures = new PriorityQueue<>();
+        final LatencyHistogram[] latencies = new LatencyHistogram[Operation.values().length];
+        final long[] rejected = new long[Operation.values().length];
+        long violations;
+        long sequence;
+        double clock;  // simulated minutes
+
+        Worker(int id) {
+            this.id = id;
+            this.random = new SplittableRandom(42L + id);
+            for (int i = 0; i < latencies.length; i++) {
+                latencies[i] = new LatencyHistogram();
+            }
+        }
+
+        @Override
+        public void run() {
+            double nextArrival = exponential(1.0 / arrivalsPerMinute);
+            while (running) {
+                Departure departure = departures.peek();
+                if (departure != null && departure.time <= nextArrival) {
+                    departures.poll();
+                    clock = departure.time;
+                    depart(departure);
+                } else {
+                    clock = nextArrival;
+                    arrive();
+                    nextArrival = clock + exponential(1.0 / arrivalsPerMinute);
+                }
+            }
+        }
+
+        private void arrive() {
+            boolean booking = random.nextDouble() < BOOKING_SHARE;
+            Operation operation = booking ? Operation.BOOK : Operation.CHECK_IN;
+            String vehicleNumber = "MH-" + id + "-" + sequence;
+            String customerId = "CUST-" + id + "-" + (sequence++ % 1000);
+            ParkingLot.SlotType preferredType = booking && random.nextBoolean()
+                    ? SLOT_TYPES[random.nextInt(SLOT_TYPES.length)] : null;
+
+            long start = System.nanoTime();
+            ParkingService.Result<Booking> result = booking
+                    ? parkingService.book(vehicleNumber, customerId, preferredType)
+                    : parkingService.checkIn(vehicleNumber, customerId);
+            record(operation, System.nanoTime() - start);
+
+            if (!result.isSuccess()) {
+                if (measuring) {
+                    rejected[operation.ordinal()]++;
+                }
+                return;
+            }
+            Booking created = result.getValue();
+            if (!holders.compareAndSet(created.getSlotNumber() - 1, 0, id + 1)) {
+                violations++;
+            }
+            boolean cancel = booking && random.nextDouble() < CANCEL_SHARE;
+            double stay = cancel ? exponential(MEAN_STAY_MINUTES / 10) : exponential(MEAN_STAY_MINUTES);
+            departures.add(new Departure(clock, clock + stay, created, cancel));
+        }
+
+        private void depart(Departure departure) {
+            Booking booking = departure.booking;
+            Operation operation = departure.cancel ? Operation.CANCEL : Operation.CHECK_OUT;
+            // Release our claim first: once the lot frees the slot another worker may take it
+            holders.set(booking.getSlotNumber() - 1, 0);
+
+            long start = System.nanoTime();
+            long stayMinutes = Math.round(departure.time - departure.arrival);
+            boolean done = departure.cancel
+                    ? parkingService.cancel(booking.getBookingId()).isSuccess()
+                    : parkingService.checkOut(booking.getBookingId(),
+                            booking.getCheckInTime().plusMinutes(stayMinutes)).isSuccess();
+            record(operation, System.nanoTime() - start);
+            if (!done && measuring) {
+                rejected[operation.ordinal()]++;
+            }
+        }
+
+        private void record(Operation operation, long nanos) {
+            if (measuring) {
+                latencies[operation.ordinal()].record(nanos);
+            }
+        }
+
+        private double exponential(double mean) {
+            return -mean * Math.log(1.0 - random.nextDouble());
+        }
+    }
+
+    public LoadGenerator(int slots, int threads, double occupancy, String journalDir) {
+        this.parkingLot = new ParkingLot("LOAD", slots, true);
+        this.bookingRepository = new BookingRepository();
+        this.dataStore = journalDir != null ? new DataStore(journalDir, true) : null;
+        this.parkingService = new ParkingService(parkingLot, bookingRepository, dataStore, new Logger());
+        this.holders = new AtomicIntegerArray(slots);
+        this.arrivalsPerMinute = occupancy * slots / MEAN_STAY_MINUTES / threads;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int slots = args.length > 2 ? Integer.parseInt(args[2]) : 10_000;
+        double occupancy = args.length > 3 ? Double.parseDouble(args[3]) : 0.85;
+        String journalDir = args.length > 4 ? args[4] : null;
+
+        System.out.println("=== SMART PARKING LOAD GENERATOR ===");
+        System.out.printf("Threads: %d, Duration: %ds, Slots: %,d, Target occupancy: %.0f%%%s%n",
+                threads, seconds, slots, occupancy * 100,
+                journalDir != null ? ", Journal: " + journalDir : "");
+        new LoadGenerator(slots, threads, occupancy, journalDir).run(threads, seconds);
+    }
+
+    public void run(int threads, int seconds) throws InterruptedException {
+        Worker[] workers = new Worker[threads];
+        Thread[] pool = new Thread[threads];
+        CountDownLatch finished = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Worker(i);
+            Worker worker = workers[i];
+            pool[i] = new Thread(() -> {
+                try {
+                    worker.run();
+                } finally {
+                    finished.countDown();
+                }
+            }, "load-" + i);
+            pool[i].start();
+        }
+
+        Thread.sleep(WARMUP_NANOS / 1_000_000L);
+        measuring = true;
+        long start = System.nanoTime();
+        Thread.sleep(seconds * 1000L);
+        measuring = false;
+        long elapsed = System.nanoTime() - start;
+        running = false;
+        finished.await();
+        if (dataStore != null) {
+            dataStore.close();
+        }
+
+        report(workers, elapsed);
+    }
+
+    private void report(Worker[] workers, long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        long totalOps = 0;
+        long violations = 0;
+        long held = 0;
+
+        System.out.printf("%n%-10s %12s %12s %10s %10s %10s %10s %10s%n",
+                "operation", "count", "ops/s", "p50", "p99", "p999", "max", "rejected");
+        for (Operation operation : Operation.values()) {
+            LatencyHistogram merged = new LatencyHistogram();
+            long rejected = 0;
+            for (Worker worker : workers) {
+                merged.merge(worker.latencies[operation.ordinal()]);
+                rejected += worker.rejected[operation.ordinal()];
+            }
+            totalOps += merged.count();
+            System.out.printf("%-10s %,12d %,12.0f %10s %10s %10s %10s %,10d%n",
+                    operation.label, merged.count(), merged.count() / seconds,
+                    formatNanos(merged.percentile(50)), formatNanos(merged.percentile(99)),
+                    formatNanos(merged.percentile(99.9)), formatNanos(merged.max()), rejected);
+        }
+        for (Worker worker : workers) {
+            violations += worker.violations;
+            held += worker.departures.size();
+        }
+
+        ParkingLot.AvailabilityMonitor monitor = parkingLot.getMonitor();
+        System.out.printf("%-10s %,12d %,12.0f%n", "total", totalOps, totalOps / seconds);
+        System.out.printf("%nFinal occupancy: %,d / %,d (%.1f%%)%n",
+                monitor.getOccupiedSlots(), monitor.getTotalSlots(), monitor.getOccupancyRate());
+        for (ParkingLot.SlotType type : SLOT_TYPES) {
+            System.out.printf("  %-9s %,d / %,d%n", type + ":",
+                    monitor.getOccupiedSlots(type), monitor.getTotalSlots(type));
+        }
+        System.out.printf("Bookings: %,d, Payments: %,d%n",
+                bookingRepository.getBookingCount(), bookingRepository.getPaymentCount());
+        boolean consistent = violations == 0 && held == monitor.getOccupiedSlots();
+        System.out.println("Consistency: " + (consistent ? "OK" : "FAILED")
+                + " (double allocations: " + violations + ", vehicles parked: " + held + ")");
+    }
+
+    private static String formatNanos(long nanos) {
+        if (nanos >= 1_000_000_000L) {
+            return String.format("%.2f s", nanos / 1e9);
+        } else if (nanos >= 1_000_000L) {
+            return String.format("%.2f ms", nanos / 1e6);
+        } else if (nanos >= 1_000L) {
+            return String.format("%.2f us", nanos / 1e3);
+        }
+        return nanos + " ns";
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * File: ParkingBenchmarks.java
+ * Package: com.smartpark.bench
+ * Purpose: Benchmark suite for the ParkingLot, DataStore and Logger hot paths
+ */
+
+package com.smartpark.bench;
+
+import com.smartpark.Booking;
+import com.smartpark.ParkingLot;
+import com.smartpark.Payment;
+import com.smartpark.io.DataStore;
+import com.smartpark.utils.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Runnable benchmark suite:
+ *   - ParkingLot.allocateSlot (all three overloads) paired with deallocateSlot, at
+ *     0%, 50% and 95% occupancy of a 50,000-slot lot
+ *   - AvailabilityMonitor metrics and ParkingLot.toString()
+ *   - DataStore save/load of bookings and payments at 10k and 1M records
+ *   - Logger.log with the level enabled and filtered out
+ *
+ * Usage: java -cp bin com.smartpark.bench.ParkingBenchmarks [filter] [quick]
+ * Only benchmarks whose name contains the filter run; "quick" shortens the iterations.
+ */
+public class ParkingBenchmarks {
+    private static final int LOT_SIZE = 50_000;
+    private static final double[] OCCUPANCY = {0.0, 0.50, 0.95};
+    private static final int[] RECORD_COUNTS = {10_000, 1_000_000};
+
+    public static void main(String[] args) throws Exception {
+        String filter = args.length > 0 && !args[0].isEmpty() ? args[0] : null;
+        boolean quick = args.length > 1 && "quick".equals(args[1]);
+
+        Bench fast = quick ? new Bench(2, 3, 200, filter) : new Bench(5, 10, 1000, filter);
+        Bench heavy = quick ? new Bench(1, 2, 1, filter) : new Bench(2, 5, 1, filter);
+
+        System.out.println("=== SMART PARKING BENCHMARKS ===");
+        benchmarkAllocation(fast);
+        benchmarkMetrics(fast);
+        benchmarkLogger(fast);
+        benchmarkDataStore(heavy);
+    }
+
+    private static void benchmarkAllocation(Bench bench) throws Exception {
+        for (double occupancy : OCCUPANCY) {
+            String at = String.format(" @%d%% of %,d", Math.round(occupancy * 100), LOT_SIZE);
+
+            ParkingLot lot = lotAtOccupancy(occupancy);
+            bench.run("allocateSlot(vehicle, customer)+deallocateSlot" + at, () -> {
+                int slot = lot.allocateSlot("MH-01", "CUST-1").getSlotNumber();
+                lot.deallocateSlot(slot);
+                return slot;
+            });
+
+            ParkingLot typed = lotAtOccupancy(occupancy);
+            bench.run("allocateSlot(vehicle, customer, type)+deallocateSlot" + at, () -> {
+                int slot = typed.allocateSlot("MH-01", "CUST-1", "Handicap").getSlotNumber();
+                typed.deallocateSlot(slot);
+                return slot;
+            });
+
+            ParkingLot specific = lotAtOccupancy(occupancy);
+            int[] free = freeSlots(specific);
+            int[] cursor = {0};
+            bench.run("allocateSlot(number, vehicle, customer)+deallocateSlot" + at, () -> {
+                int number = free[cursor[0]++ % free.length];
+                int slot = specific.allocateSlot(number, "MH-01", "CUST-1").getSlotNumber();
+                specific.deallocateSlot(slot);
+                return slot;
+            });
+        }
+    }
+
+    private static void benchmarkMetrics(Bench bench) throws Exception {
+        ParkingLot lot = lotAtOccupancy(0.95);
+        ParkingLot.AvailabilityMonitor monitor = lot.getMonitor();
+        bench.run("AvailabilityMonitor.getAvailableSlots", monitor::getAvailableSlots);
+        bench.run("AvailabilityMonitor.getOccupiedSlots", monitor::getOccupiedSlots);
+        bench.run("AvailabilityMonitor.getOccupancyRate", () -> (long) monitor.getOccupancyRate());
+        bench.run("ParkingLot.toString", () -> lot.toString().length());
+        bench.run("AvailabilityMonitor.getAvailableSlots(type)", () -> monitor.getAvailableSlots("Handicap"));
+
+        // One status poll: walk the whole lot and count what a kiosk would display
+        String size = String.format(" x %,d", LOT_SIZE);
+        bench.run("ParkingLot.forEachSlot" + size, () -> {
+            int[] occupied = new int[1];
+            lot.forEachSlot((number, type, taken, vehicle, customer) -> {
+                if (taken) {
+                    occupied[0]++;
+                }
+            });
+            return occupied[0];
+        });
+        bench.run("ParkingLot.getAllSlots (view)" + size, () -> {
+            long occupied = 0;
+            for (ParkingLot.Slot slot : lot.getAllSlots()) {
+                if (slot.isOccupied()) {
+                    occupied++;
+                }
+            }
+            return occupied;
+        });
+        bench.run("ParkingLot.availableSlotNumbers" + size, () -> {
+            long sum = 0;
+            for (PrimitiveIterator.OfInt free = lot.availableSlotNumbers(); free.hasNext(); ) {
+                sum += free.nextInt();
+            }
+            return sum;
+        });
+    }
+
+    private static void benchmarkLogger(Bench bench) throws Exception {
+        Logger logger = new Logger();
+        bench.run("Logger.log (enabled)", () -> {
+            logger.log("Vehicle checked in");
+            return 1;
+        });
+        Logger filtered = new Logger(Logger.LogLevel.ERROR, Logger.DEFAULT_CAPACITY);
+        bench.run("Logger.logEvents (filtered out)", () -> {
+            filtered.logEvents(Logger.LogLevel.INFO, "Vehicle checked in");
+            return 1;
+        });
+    }
+
+    private static void benchmarkDataStore(Bench bench) throws Exception {
+        for (int count : RECORD_COUNTS) {
+            String size = String.format(" x %,d", count);
+            if (!bench.selected("DataStore")) {
+                return;
+            }
+            Path dir = Files.createTempDirectory("smartpark-bench");
+            try {
+                DataStore dataStore = new DataStore(dir.toString());
+                List<Booking> bookings = generateBookings(count);
+                List<Payment> payments = generatePayments(count);
+
+                bench.run("DataStore.saveBookings" + size, () -> {
+                    dataStore.saveBookings(bookings);
+                    return bookings.size();
+                });
+                bench.run("DataStore.loadBookings" + size, () -> dataStore.loadBookings().size());
+                bench.run("DataStore.savePayments" + size, () -> {
+                    dataStore.savePayments(payments);
+                    return payments.size();
+                });
+                bench.run("DataStore.loadPayments" + size, () -> dataStore.loadPayments().size());
+                dataStore.close();
+            } finally {
+                deleteRecursively(dir);
+            }
+        }
+    }
+
+    // A lot with the given fraction of slots occupied, chosen at random
+    private static ParkingLot lotAtOccupancy(double occupancy) throws Exception {
+        ParkingLot lot = new ParkingLot("BENCH", LOT_SIZE);
+        List<Integer> numbers = new ArrayList<>();
+        for (int i = 1; i <= LOT_SIZE; i++) {
+            numbers.add(i);
+        }
+        Collections.shuffle(numbers, new Random(42));
+        int occupied = (int) (LOT_SIZE * occupancy);
+        for (int i = 0; i < occupied; i++) {
+            lot.allocateSlot(numbers.get(i), "MH-" + i, "CUST-" + i);
+        }
+        return lot;
+    }
+
+    private static int[] freeSlots(ParkingLot lot) {
+        int[] numbers = new int[lot.getMonitor().getAvailableSlots()];
+        PrimitiveIterator.OfInt free = lot.availableSlotNumbers();
+        int count = 0;
+        while (free.hasNext() && count < numbers.length) {
+            numbers[count++] = free.nextInt();
+        }
+        return count == numbers.length ? numbers : Arrays.copyOf(numbers, count);
+    }
+
+    private static List<Booking> generateBookings(int count) {
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 8, 0);
+        List<Booking> bookings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDateTime checkIn = base.plusMinutes(i);
+            bookings.add(new Booking("BOOK-" + i, "CUST-" + (i % 10_000), 1 + i % 20, "MH-" + i,
+                    checkIn, checkIn.plusHours(2), Booking.Status.COMPLETED));
+        }
+        return bookings;
+    }
+
+    private static List<Payment> generatePayments(int count) {
+        List<Payment> payments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Payment payment = new Payment("PAY-" + i, "BOOK-" + i, 1 + i % 8);
+            payment.setPaymentStatus(Payment.Status.COMPLETED);
+            payments.add(payment);
+        }
+        return payments;
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+}
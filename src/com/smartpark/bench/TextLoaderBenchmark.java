@@ -0,0 +1,99 @@
+/*
+ * File: TextLoaderBenchmark.java
+ * Package: com.smartpark.bench
+ * Purpose: Compares the streaming DataStore text loader with the original Scanner loader
+ */
+
+package com.smartpark.bench;
+
+import com.smartpark.Booking;
+import com.smartpark.io.DataStore;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Scanner;
+
+/**
+ * Generates a bookings.txt with N lines (default 5,000,000) and times three ways of
+ * reading it: the original Scanner + split("\\|") loop, DataStore.loadBookings()
+ * and DataStore.forEachBooking() with a counting callback.
+ *
+ * Usage: java -cp bin com.smartpark.bench.TextLoaderBenchmark [lines] [dataDir] [rounds]
+ */
+public class TextLoaderBenchmark {
+    public static void main(String[] args) throws IOException {
+        int lines = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        String dataDir = args.length > 1 ? args[1] : "bench-data";
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+
+        DataStore dataStore = new DataStore(dataDir);
+        generateBookings(Paths.get(dataStore.getBookingsFile()), lines);
+        System.out.printf("Generated %,d booking lines in %s%n", lines, dataStore.getBookingsFile());
+
+        for (int round = 1; round <= rounds; round++) {
+            System.out.println("Round " + round + ":");
+
+            long start = System.nanoTime();
+            int scanned = loadWithScanner(dataStore.getBookingsFile()).size();
+            report("Scanner + split (original)", scanned, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            int loaded = dataStore.loadBookings().size();
+            report("DataStore.loadBookings", loaded, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            long[] streamed = new long[1];
+            dataStore.forEachBooking(booking -> streamed[0]++);
+            report("DataStore.forEachBooking", (int) streamed[0], System.nanoTime() - start);
+        }
+    }
+
+    private static void report(String name, int records, long nanos) {
+        double seconds = nanos / 1e9;
+        System.out.printf("  %-28s %,10d records %8.3f s %,12.0f records/s%n",
+                name, records, seconds, records / seconds);
+    }
+
+    private static void generateBookings(Path file, int lines) throws IOException {
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 8, 0);
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            for (int i = 0; i < lines; i++) {
+                LocalDateTime checkIn = base.plusMinutes(i);
+                boolean completed = i % 4 != 0;
+                writer.write("BOOK-" + i + "|CUST-" + (i % 50_000) + "|" + (1 + i % 20) + "|MH-" + (i % 9999)
+                        + "|" + checkIn + "|" + (completed ? "COMPLETED" : "ACTIVE")
+                        + "|" + (completed ? checkIn.plusMinutes(30 + i % 300) : null));
+                writer.newLine();
+            }
+        }
+    }
+
+    // The loader as it was before the streaming reader: Scanner, trim, regex split
+    private static List<Booking> loadWithScanner(String bookingsFile) {
+        List<Booking> bookings = new ArrayList<>();
+        try (Scanner scanner = new Scanner(new File(bookingsFile))) {
+            while (scanner.hasNextLine()) {
+                String line = scanner.nextLine().trim();
+                if (line.isEmpty()) continue;
+
+                String[] parts = line.split("\\|");
+                if (parts.length >= 6) {
+                    Booking booking = new Booking(parts[0], parts[1], Integer.parseInt(parts[2]), parts[3]);
+                    booking.setStatus(parts[5]);
+                    bookings.add(booking);
+                }
+            }
+        } catch (FileNotFoundException e) {
+            System.out.println("Bookings file not found.");
+        }
+        return bookings;
+    }
+}
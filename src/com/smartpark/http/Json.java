@@ -0,0 +1,209 @@
+/*
+ * File: Json.java
+ * Package: com.smartpark.http
+ * Purpose: Hand-written JSON encoding for the HTTP API responses
+ */
+
+package com.smartpark.http;
+
+import com.smartpark.Booking;
+import com.smartpark.ParkingLot;
+import com.smartpark.Payment;
+
+import java.util.List;
+
+/**
+ * Minimal JSON writer for the few response shapes the API produces. Output is
+ * built straight into one StringBuilder with no intermediate tree; strings are
+ * escaped per RFC 8259 and null values are written as JSON null.
+ */
+final class Json {
+    private final StringBuilder out = new StringBuilder(256);
+    private boolean needComma;
+
+    Json beginObject() {
+        separate();
+        out.append('{');
+        needComma = false;
+        return this;
+    }
+
+    Json endObject() {
+        out.append('}');
+        needComma = true;
+        return this;
+    }
+
+    Json beginArray() {
+        separate();
+        out.append('[');
+        needComma = false;
+        return this;
+    }
+
+    Json endArray() {
+        out.append(']');
+        needComma = true;
+        return this;
+    }
+
+    // Starts a member; follow with a value or beginObject/beginArray
+    Json name(String name) {
+        separate();
+        quote(name);
+        out.append(':');
+        needComma = false;
+        return this;
+    }
+
+    Json value(String value) {
+        separate();
+        if (value == null) {
+            out.append("null");
+        } else {
+            quote(value);
+        }
+        needComma = true;
+        return this;
+    }
+
+    Json value(long value) {
+        separate();
+        out.append(value);
+        needComma = true;
+        return this;
+    }
+
+    Json value(double value) {
+        separate();
+        out.append(Double.isFinite(value) ? Double.toString(value) : "null");
+        needComma = true;
+        return this;
+    }
+
+    Json value(boolean value) {
+        separate();
+        out.append(value);
+        needComma = true;
+        return this;
+    }
+
+    Json field(String name, String value) {
+        return name(name).value(value);
+    }
+
+    Json field(String name, long value) {
+        return name(name).value(value);
+    }
+
+    Json field(String name, double value) {
+        return name(name).value(value);
+    }
+
+    Json field(String name, boolean value) {
+        return name(name).value(value);
+    }
+
+    @Override
+    public String toString() {
+        return out.toString();
+    }
+
+    static String error(String message) {
+        return new Json().beginObject().field("error", message).endObject().toString();
+    }
+
+    static String booking(Booking booking) {
+        return writeBooking(new Json(), booking).toString();
+    }
+
+    static String bookings(List<Booking> bookings) {
+        Json json = new Json().beginArray();
+        for (Booking booking : bookings) {
+            writeBooking(json, booking);
+        }
+        return json.endArray().toString();
+    }
+
+    static String payment(Payment payment) {
+        return writePayment(new Json(), payment).toString();
+    }
+
+    static String payments(List<Payment> payments) {
+        Json json = new Json().beginArray();
+        for (Payment payment : payments) {
+            writePayment(json, payment);
+        }
+        return json.endArray().toString();
+    }
+
+    static String availability(ParkingLot parkingLot) {
+        ParkingLot.AvailabilityMonitor monitor = parkingLot.getMonitor();
+        Json json = new Json().beginObject()
+                .field("lot", parkingLot.getParkingLotId())
+                .field("total", monitor.getTotalSlots())
+                .field("available", monitor.getAvailableSlots())
+                .field("occupied", monitor.getOccupiedSlots())
+                .field("occupancyRate", monitor.getOccupancyRate())
+                .name("byType").beginObject();
+        for (ParkingLot.SlotType type : parkingLot.getSlotTypes()) {
+            json.name(type.getLabel()).beginObject()
+                    .field("total", monitor.getTotalSlots(type))
+                    .field("available", monitor.getAvailableSlots(type))
+                    .endObject();
+        }
+        return json.endObject().endObject().toString();
+    }
+
+    private static Json writeBooking(Json json, Booking booking) {
+        return json.beginObject()
+                .field("bookingId", booking.getBookingId())
+                .field("customerId", booking.getCustomerId())
+                .field("slotNumber", booking.getSlotNumber())
+                .field("vehicleNumber", booking.getVehicleNumber())
+                .field("checkInTime", String.valueOf(booking.getCheckInTime()))
+                .field("checkOutTime", booking.getCheckOutTime() != null
+                        ? booking.getCheckOutTime().toString() : null)
+                .field("status", booking.getStatus().name())
+                .endObject();
+    }
+
+    private static Json writePayment(Json json, Payment payment) {
+        return json.beginObject()
+                .field("paymentId", payment.getPaymentId())
+                .field("bookingId", payment.getBookingId())
+                .field("parkingHours", payment.getParkingHours())
+                .field("amount", payment.getAmount())
+                .field("status", payment.getPaymentStatus().name())
+                .field("paymentTime", payment.getPaymentTime() != null
+                        ? payment.getPaymentTime().toString() : null)
+                .endObject();
+    }
+
+    private void separate() {
+        if (needComma) {
+            out.append(',');
+        }
+    }
+
+    private void quote(String s) {
+        out.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"': out.append("\\\""); break;
+                case '\\': out.append("\\\\"); break;
+                case '\n': out.append("\\n"); break;
+                case '\r': out.append("\\r"); break;
+                case '\t': out.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        out.append('"');
+    }
+}
@@ -0,0 +1,360 @@
+/*
+ * File: ParkingServer.java
+ * Package: com.smartpark.http
+ * Purpose: Embedded HTTP API for kiosks and mobile apps on top of ParkingService
+ */
+
+package com.smartpark.http;
+
+import com.smartpark.Booking;
+import com.smartpark.BookingRepository;
+import com.smartpark.ParkingLot;
+import com.smartpark.ParkingService;
+import com.smartpark.Payment;
+import com.smartpark.exceptions.NoAvailableSlotException;
+import com.smartpark.io.DataStore;
+import com.smartpark.utils.Logger;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serves the parking operations over HTTP using the JDK's built-in server. All
+ * responses are JSON; parameters come from the query string or an
+ * application/x-www-form-urlencoded body.
+ *
+ *   GET  /slots                                   availability, overall and by slot type
+ *   POST /checkin   vehicle, customer             attendant check-in, 201 + booking
+ *   POST /checkout  booking                       check-out, 200 + payment
+ *   POST /bookings  vehicle, customer [, type]    customer booking, 201 + booking
+ *   GET  /bookings  customer                      the customer's bookings
+ *   POST /cancel    booking [, customer]          cancellation, 200 + booking
+ *   GET  /invoices  customer                      the customer's payments
+ *
+ * Errors: 400 for a missing parameter, 404 for an unknown booking, 405 for the
+ * wrong method, 409 when the operation is refused (lot full, booking not active).
+ *
+ * Each request runs on its own virtual thread when the JVM has them (Java 21+),
+ * so thousands of requests can be in flight with only a small stack each. The
+ * executor is looked up by reflection so the code still builds and runs on
+ * Java 17, where it falls back to a fixed pool of twice as many platform threads
+ * as CPUs. With a data directory, a handler that changes state blocks while its
+ * record is written and flushed to the journal. Those writes go one at a time
+ * under the DataStore's lock, so more threads would only queue on that lock; two
+ * per CPU let other requests use the CPU during a flush, and extra requests wait
+ * in the pool's queue.
+ *
+ * Usage: java -cp bin com.smartpark.http.ParkingServer [port] [slots] [data-dir]
+ * Defaults: port 8080, 1,000 slots, no persistence. With a data directory the
+ * server journals every change there and compacts it on shutdown.
+ */
+public class ParkingServer {
+    public static final int DEFAULT_PORT = 8080;
+    public static final int DEFAULT_BACKLOG = 4096;
+
+    private static final String JSON_TYPE = "application/json; charset=utf-8";
+
+    static {
+        // The JDK server writes the headers and the body separately; with Nagle's algorithm
+        // on, the body waits for the client's delayed ACK and every response takes ~40 ms.
+        // The setting is read once, when the first server is created.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final ParkingService parkingService;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final boolean virtualThreads;
+    private final Map<String, Map<String, Endpoint>> routes = new HashMap<>();
+
+    /** A single endpoint: turns the request parameters into a response. */
+    private interface Endpoint {
+        Response handle(Map<String, String> params);
+    }
+
+    private static final class Response {
+        final int status;
+        final String body;
+
+        Response(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+
+    // Signals a 400 for a missing required parameter
+    private static final class BadRequest extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        BadRequest(String message) {
+            super(message, null, false, false);
+        }
+    }
+
+    public ParkingServer(ParkingService parkingService, int port) throws IOException {
+        this(parkingService, new InetSocketAddress(port), DEFAULT_BACKLOG);
+    }
+
+    // REQUIREMENT #10: Constructor overloading - explicit address and accept backlog
+    public ParkingServer(ParkingService parkingService, InetSocketAddress address, int backlog) throws IOException {
+        this.parkingService = parkingService;
+        this.server = HttpServer.create(address, backlog);
+
+        ExecutorService virtual = newVirtualThreadExecutor();
+        this.virtualThreads = virtual != null;
+        this.executor = virtual != null ? virtual : newPlatformThreadExecutor();
+        server.setExecutor(executor);
+
+        route("/slots", "GET", params -> new Response(200, Json.availability(parkingService.getParkingLot())));
+        route("/checkin", "POST", this::checkIn);
+        route("/checkout", "POST", this::checkOut);
+        route("/bookings", "POST", this::book);
+        route("/bookings", "GET", this::bookings);
+        route("/cancel", "POST", this::cancel);
+        route("/invoices", "GET", this::invoices);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    // Stops accepting connections, waits up to delaySeconds for exchanges in progress
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(delaySeconds, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public boolean isUsingVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public ParkingService getParkingService() {
+        return parkingService;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        int slots = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        String dataDir = args.length > 2 ? args[2] : null;
+
+        ParkingLot parkingLot = new ParkingLot("LOT-001", slots, true);
+        BookingRepository bookingRepository = new BookingRepository();
+        DataStore dataStore = null;
+        if (dataDir != null) {
+            dataStore = new DataStore(dataDir, true);
+            dataStore.forEachBooking(bookingRepository::addBooking);
+            dataStore.forEachPayment(bookingRepository::addPayment);
+            // Vehicles still parked from the previous run keep their slots
+            for (Booking booking : bookingRepository.findByStatus(Booking.Status.ACTIVE)) {
+                try {
+                    parkingLot.allocateSlot(booking.getSlotNumber(), booking.getVehicleNumber(),
+                            booking.getCustomerId());
+                } catch (NoAvailableSlotException e) {
+                    System.err.println("Error restoring booking " + booking.getBookingId() + ": " + e.getMessage());
+                }
+            }
+        }
+        ParkingService parkingService = new ParkingService(parkingLot, bookingRepository, dataStore, new Logger());
+        ParkingServer server = new ParkingServer(parkingService, port);
+
+        DataStore store = dataStore;
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop(1);
+            if (store != null) {
+                store.compact(store.loadUsers(), bookingRepository.getAllBookings(),
+                        bookingRepository.getAllPayments());
+                store.close();
+            }
+        }));
+
+        server.start();
+        System.out.println("Smart Parking API listening on port " + server.getPort()
+                + " (" + slots + " slots, " + (server.isUsingVirtualThreads()
+                ? "virtual threads" : "platform thread pool") + ")");
+    }
+
+    private Response checkIn(Map<String, String> params) {
+        ParkingService.Result<Booking> result =
+                parkingService.checkIn(required(params, "vehicle"), required(params, "customer"));
+        return result.isSuccess()
+                ? new Response(201, Json.booking(result.getValue()))
+                : new Response(409, Json.error(result.getMessage()));
+    }
+
+    private Response checkOut(Map<String, String> params) {
+        String bookingId = required(params, "booking");
+        if (parkingService.getBookingRepository().findBooking(bookingId) == null) {
+            return new Response(404, Json.error("Booking not found with ID: " + bookingId));
+        }
+        ParkingService.Result<Payment> result = parkingService.checkOut(bookingId);
+        return result.isSuccess()
+                ? new Response(200, Json.payment(result.getValue()))
+                : new Response(409, Json.error(result.getMessage()));
+    }
+
+    private Response book(Map<String, String> params) {
+        ParkingService.Result<Booking> result = parkingService.book(
+                required(params, "vehicle"), required(params, "customer"), params.get("type"));
+        return result.isSuccess()
+                ? new Response(201, Json.booking(result.getValue()))
+                : new Response(409, Json.error(result.getMessage()));
+    }
+
+    private Response bookings(Map<String, String> params) {
+        List<Booking> bookings = parkingService.bookings(required(params, "customer")).getValue();
+        return new Response(200, Json.bookings(bookings));
+    }
+
+    private Response cancel(Map<String, String> params) {
+        String bookingId = required(params, "booking");
+        String customerId = params.get("customer");
+        Booking booking = parkingService.getBookingRepository().findBooking(bookingId);
+        if (booking == null || (customerId != null && !customerId.equals(booking.getCustomerId()))) {
+            return new Response(404, Json.error("Booking not found with ID: " + bookingId));
+        }
+        ParkingService.Result<Booking> result = parkingService.cancel(bookingId, customerId);
+        return result.isSuccess()
+                ? new Response(200, Json.booking(result.getValue()))
+                : new Response(409, Json.error(result.getMessage()));
+    }
+
+    private Response invoices(Map<String, String> params) {
+        List<Payment> payments = parkingService.invoice(required(params, "customer")).getValue();
+        return new Response(200, Json.payments(payments));
+    }
+
+    // One server context per path, dispatching on the request method
+    private void route(String path, String method, Endpoint endpoint) {
+        Map<String, Endpoint> methods = routes.get(path);
+        if (methods == null) {
+            Map<String, Endpoint> byMethod = new LinkedHashMap<>();
+            routes.put(path, byMethod);
+            server.createContext(path, exchange -> dispatch(exchange, path, byMethod));
+            methods = byMethod;
+        }
+        methods.put(method, endpoint);
+    }
+
+    private static void dispatch(HttpExchange exchange, String path, Map<String, Endpoint> methods)
+            throws IOException {
+        String requestMethod = exchange.getRequestMethod();
+        Response response;
+        try {
+            Map<String, String> params = parameters(exchange);
+            Endpoint endpoint = methods.get(requestMethod);
+            if (!exchange.getRequestURI().getPath().equals(path)) {
+                response = new Response(404, Json.error("No such endpoint: " + exchange.getRequestURI().getPath()));
+            } else if (endpoint == null) {
+                exchange.getResponseHeaders().set("Allow", String.join(", ", methods.keySet()));
+                response = new Response(405, Json.error("Method not allowed: " + requestMethod));
+            } else {
+                response = endpoint.handle(params);
+            }
+        } catch (BadRequest e) {
+            response = new Response(400, Json.error(e.getMessage()));
+        } catch (RuntimeException e) {
+            System.err.println("Error handling " + requestMethod + " " + path + ": " + e.getMessage());
+            response = new Response(500, Json.error("Internal error"));
+        }
+        send(exchange, response);
+    }
+
+    private static void send(HttpExchange exchange, Response response) throws IOException {
+        byte[] body = response.body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", JSON_TYPE);
+        exchange.sendResponseHeaders(response.status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    // Query string parameters, then form body parameters (the body wins on conflicts)
+    private static Map<String, String> parameters(HttpExchange exchange) throws IOException {
+        Map<String, String> params = new HashMap<>();
+        parseForm(exchange.getRequestURI().getRawQuery(), params);
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] body = in.readAllBytes();
+            String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+            if (body.length > 0 && contentType != null
+                    && contentType.startsWith("application/x-www-form-urlencoded")) {
+                parseForm(new String(body, StandardCharsets.UTF_8), params);
+            }
+        }
+        return params;
+    }
+
+    private static void parseForm(String form, Map<String, String> params) {
+        if (form == null || form.isEmpty()) {
+            return;
+        }
+        int start = 0;
+        while (start <= form.length()) {
+            int end = form.indexOf('&', start);
+            if (end < 0) {
+                end = form.length();
+            }
+            int eq = form.indexOf('=', start);
+            if (eq > start && eq < end) {
+                params.put(URLDecoder.decode(form.substring(start, eq), StandardCharsets.UTF_8),
+                        URLDecoder.decode(form.substring(eq + 1, end), StandardCharsets.UTF_8));
+            }
+            start = end + 1;
+        }
+    }
+
+    private static String required(Map<String, String> params, String name) {
+        String value = params.get(name);
+        if (value == null || value.trim().isEmpty()) {
+            throw new BadRequest("Missing parameter: " + name);
+        }
+        return value.trim();
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor() on Java 21+, null on older JVMs
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+
+    // Two threads per CPU: one can wait on a journal flush while another computes
+    private static ExecutorService newPlatformThreadExecutor() {
+        AtomicInteger count = new AtomicInteger();
+        ThreadFactory factory = task -> {
+            Thread thread = new Thread(task, "http-worker-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors() * 2), factory);
+    }
+}
@@ -0,0 +1,369 @@
+/*
+ * File: BinaryStore.java
+ * Package: com.smartpark.io
+ * Purpose: Fixed-width binary persistence for bookings and payments via memory-mapped files
+ * Requirements: #8 (File handling)
+ */
+
+package com.smartpark.io;
+
+import com.smartpark.Booking;
+import com.smartpark.Payment;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Alternative DataStore backend that keeps bookings and payments in fixed-width
+ * binary records (bookings.bin, payments.bin), read and written through
+ * MappedByteBuffers. Record i lives at HEADER_SIZE + i * recordSize, so any record
+ * can be decoded on its own: {@link #loadBookings()} returns a lazy list that only
+ * decodes the records that are actually read. Users stay in the text format.
+ *
+ * File layout: int magic, int version, int record size, int record count, then records.
+ * Strings are stored as a length byte plus UTF-8 bytes padded to a fixed field width;
+ * times are UTC epoch millis of the LocalDateTime, with Long.MIN_VALUE for "not set".
+ * Statuses are written as their one-letter code in the status field. Files written
+ * before the codes existed hold the full name there, and both forms are read back.
+ * A booking's flags byte follows its status field, in what used to be padding, so
+ * older files read back with no flags set.
+ */
+public class BinaryStore {
+    private static final int MAGIC = 0x53504B31;  // "SPK1"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int ID_FIELD = 32;
+    private static final int STATUS_FIELD = 12;
+    private static final long NO_TIME = Long.MIN_VALUE;
+
+    // Booking record: bookingId, customerId, vehicleNumber, slot, checkIn, checkOut, status, flags
+    private static final int BOOKING_RECORD_SIZE = 144;
+    private static final byte AWAITING_ARRIVAL = 1;  // booking flag bit
+    // Payment record: paymentId, bookingId, hours, amount, status
+    private static final int PAYMENT_RECORD_SIZE = 96;
+
+    // Largest mapping is 1 GiB, rounded down to whole records
+    private static final long MAX_SEGMENT_BYTES = 1L << 30;
+
+    private String bookingsFile;
+    private String paymentsFile;
+    private RecordFile bookingRecords;  // mapped lazily, dropped on save
+    private RecordFile paymentRecords;
+
+    public BinaryStore(String dataDir) {
+        this.bookingsFile = dataDir + File.separator + "bookings.bin";
+        this.paymentsFile = dataDir + File.separator + "payments.bin";
+        try {
+            Files.createDirectories(Paths.get(dataDir));
+        } catch (IOException e) {
+            System.err.println("Error initializing data directory: " + e.getMessage());
+        }
+    }
+
+    // Save bookings as fixed-width records; false if the save failed and the old file was kept
+    public synchronized boolean saveBookings(List<Booking> bookings) {
+        try {
+            writeRecords(bookingsFile, BOOKING_RECORD_SIZE, bookings.size(), (buffer, i) -> {
+                Booking booking = bookings.get(i);
+                putString(buffer, booking.getBookingId(), ID_FIELD);
+                putString(buffer, booking.getCustomerId(), ID_FIELD);
+                putString(buffer, booking.getVehicleNumber(), ID_FIELD);
+                buffer.putInt(booking.getSlotNumber());
+                buffer.putLong(toMillis(booking.getCheckInTime()));
+                buffer.putLong(toMillis(booking.getCheckOutTime()));
+                putCode(buffer, booking.getStatus().getCode(), STATUS_FIELD);
+                buffer.put(booking.isAwaitingArrival() ? AWAITING_ARRIVAL : 0);
+            });
+            bookingRecords = null;
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error saving bookings: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // Lazy view: records are decoded on get(), nothing is parsed up front
+    public synchronized List<Booking> loadBookings() {
+        try {
+            if (bookingRecords == null) {
+                bookingRecords = RecordFile.open(bookingsFile, BOOKING_RECORD_SIZE);
+            }
+            return bookingRecords == null ? new ArrayList<>() : new RecordList<>(bookingRecords, BinaryStore::decodeBooking);
+        } catch (IOException e) {
+            System.err.println("Error loading bookings: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    // Random access to a single booking record by record number
+    public Booking getBooking(int recordNumber) {
+        return loadBookings().get(recordNumber);
+    }
+
+    public int getBookingCount() {
+        return loadBookings().size();
+    }
+
+    // Save payments as fixed-width records; false if the save failed and the old file was kept
+    public synchronized boolean savePayments(List<Payment> payments) {
+        try {
+            writeRecords(paymentsFile, PAYMENT_RECORD_SIZE, payments.size(), (buffer, i) -> {
+                Payment payment = payments.get(i);
+                putString(buffer, payment.getPaymentId(), ID_FIELD);
+                putString(buffer, payment.getBookingId(), ID_FIELD);
+                buffer.putInt(payment.getParkingHours());
+                buffer.putDouble(payment.getAmount());
+                putCode(buffer, payment.getPaymentStatus().getCode(), STATUS_FIELD);
+            });
+            paymentRecords = null;
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error saving payments: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // Lazy view: records are decoded on get(), nothing is parsed up front
+    public synchronized List<Payment> loadPayments() {
+        try {
+            if (paymentRecords == null) {
+                paymentRecords = RecordFile.open(paymentsFile, PAYMENT_RECORD_SIZE);
+            }
+            return paymentRecords == null ? new ArrayList<>() : new RecordList<>(paymentRecords, BinaryStore::decodePayment);
+        } catch (IOException e) {
+            System.err.println("Error loading payments: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    // Random access to a single payment record by record number
+    public Payment getPayment(int recordNumber) {
+        return loadPayments().get(recordNumber);
+    }
+
+    public int getPaymentCount() {
+        return loadPayments().size();
+    }
+
+    // Converters between the text DataStore format and this binary format
+
+    public static void convertFromText(DataStore text, BinaryStore binary) {
+        binary.saveBookings(text.loadBookings());
+        binary.savePayments(text.loadPayments());
+    }
+
+    public static void convertToText(BinaryStore binary, DataStore text) {
+        text.saveBookings(binary.loadBookings());
+        text.savePayments(binary.loadPayments());
+    }
+
+    public String getBookingsFile() {
+        return bookingsFile;
+    }
+
+    public String getPaymentsFile() {
+        return paymentsFile;
+    }
+
+    // Record decoding
+
+    private static Booking decodeBooking(ByteBuffer buffer, int offset) {
+        String bookingId = getString(buffer, offset, ID_FIELD);
+        String customerId = getString(buffer, offset + ID_FIELD, ID_FIELD);
+        String vehicleNumber = getString(buffer, offset + 2 * ID_FIELD, ID_FIELD);
+        int pos = offset + 3 * ID_FIELD;
+        int slotNumber = buffer.getInt(pos);
+        LocalDateTime checkIn = fromMillis(buffer.getLong(pos + 4));
+        LocalDateTime checkOut = fromMillis(buffer.getLong(pos + 12));
+        int statusAt = pos + 20;
+        Booking.Status status = isCode(buffer, statusAt)
+                ? Booking.Status.ofCode(getCode(buffer, statusAt))
+                : Booking.Status.parse(getString(buffer, statusAt, STATUS_FIELD));
+        Booking booking = new Booking(bookingId, customerId, slotNumber, vehicleNumber, checkIn, checkOut, status);
+        booking.setAwaitingArrival((buffer.get(statusAt + STATUS_FIELD) & AWAITING_ARRIVAL) != 0);
+        return booking;
+    }
+
+    private static Payment decodePayment(ByteBuffer buffer, int offset) {
+        String paymentId = getString(buffer, offset, ID_FIELD);
+        String bookingId = getString(buffer, offset + ID_FIELD, ID_FIELD);
+        int pos = offset + 2 * ID_FIELD;
+        Payment payment = new Payment(paymentId, bookingId, buffer.getInt(pos));
+        payment.setAmount(buffer.getDouble(pos + 4));
+        int statusAt = pos + 12;
+        payment.setPaymentStatus(isCode(buffer, statusAt)
+                ? Payment.Status.ofCode(getCode(buffer, statusAt))
+                : Payment.Status.parse(getString(buffer, statusAt, STATUS_FIELD)));
+        return payment;
+    }
+
+    // A value that does not fit fails the whole save, like any other write error
+    private static void putString(ByteBuffer buffer, String value, int width) throws IOException {
+        byte[] bytes = (value == null ? "" : value).getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > width - 1) {
+            throw new IOException("Value too long for binary field (" + (width - 1) + " bytes): " + value);
+        }
+        int start = buffer.position();
+        buffer.put((byte) bytes.length);
+        buffer.put(bytes);
+        buffer.position(start + width);
+    }
+
+    private static String getString(ByteBuffer buffer, int offset, int width) {
+        int length = buffer.get(offset) & 0xFF;
+        byte[] bytes = new byte[Math.min(length, width - 1)];
+        buffer.get(offset + 1, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // A one-character field: length byte 1 and an ASCII code, padded like a string
+    private static void putCode(ByteBuffer buffer, char code, int width) {
+        int start = buffer.position();
+        buffer.put((byte) 1);
+        buffer.put((byte) code);
+        buffer.position(start + width);
+    }
+
+    private static boolean isCode(ByteBuffer buffer, int offset) {
+        return buffer.get(offset) == 1;
+    }
+
+    private static char getCode(ByteBuffer buffer, int offset) {
+        return (char) (buffer.get(offset + 1) & 0xFF);
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time == null ? NO_TIME : time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static LocalDateTime fromMillis(long millis) {
+        return millis == NO_TIME ? null : LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC);
+    }
+
+    // File access
+
+    private interface RecordWriter {
+        void write(ByteBuffer buffer, int index) throws IOException;
+    }
+
+    private interface RecordDecoder<T> {
+        T decode(ByteBuffer buffer, int offset);
+    }
+
+    private static void writeRecords(String file, int recordSize, int count, RecordWriter writer) throws IOException {
+        Path target = Paths.get(file);
+        Path temp = Paths.get(file + ".tmp");
+        boolean moved = false;
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+                header.putInt(MAGIC).putInt(VERSION).putInt(recordSize).putInt(count);
+                header.force();
+
+                int perSegment = (int) (MAX_SEGMENT_BYTES / recordSize);
+                for (int first = 0; first < count; first += perSegment) {
+                    int n = Math.min(perSegment, count - first);
+                    MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_WRITE,
+                            HEADER_SIZE + (long) first * recordSize, (long) n * recordSize);
+                    for (int i = 0; i < n; i++) {
+                        segment.position(i * recordSize);
+                        writer.write(segment, first + i);
+                    }
+                    segment.force();
+                }
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            moved = true;
+        } finally {
+            if (!moved) {
+                // A failed save leaves the previous file as it was and no half-written copy
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException e) {
+                    System.err.println("Error removing temporary file: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    // A read-only mapping of a record file, split into segments of at most 1 GiB
+    private static final class RecordFile {
+        private final int recordSize;
+        private final int count;
+        private final int perSegment;
+        private final MappedByteBuffer[] segments;
+
+        private RecordFile(int recordSize, int count, MappedByteBuffer[] segments) {
+            this.recordSize = recordSize;
+            this.count = count;
+            this.perSegment = (int) (MAX_SEGMENT_BYTES / recordSize);
+            this.segments = segments;
+        }
+
+        static RecordFile open(String file, int recordSize) throws IOException {
+            Path path = Paths.get(file);
+            if (!Files.exists(path) || Files.size(path) < HEADER_SIZE) {
+                return null;
+            }
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+                if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION || header.getInt(8) != recordSize) {
+                    throw new IOException("Unrecognised binary record file: " + file);
+                }
+                int count = header.getInt(12);
+                int perSegment = (int) (MAX_SEGMENT_BYTES / recordSize);
+                MappedByteBuffer[] segments = new MappedByteBuffer[(count + perSegment - 1) / perSegment];
+                for (int s = 0; s < segments.length; s++) {
+                    int n = Math.min(perSegment, count - s * perSegment);
+                    segments[s] = channel.map(FileChannel.MapMode.READ_ONLY,
+                            HEADER_SIZE + (long) s * perSegment * recordSize, (long) n * recordSize);
+                }
+                return new RecordFile(recordSize, count, segments);
+            }
+        }
+
+        <T> T decode(int index, RecordDecoder<T> decoder) {
+            return decoder.decode(segments[index / perSegment], (index % perSegment) * recordSize);
+        }
+    }
+
+    private static final class RecordList<T> extends AbstractList<T> implements RandomAccess {
+        private final RecordFile file;
+        private final RecordDecoder<T> decoder;
+
+        RecordList(RecordFile file, RecordDecoder<T> decoder) {
+            this.file = file;
+            this.decoder = decoder;
+        }
+
+        @Override
+        public T get(int index) {
+            if (index < 0 || index >= file.count) {
+                throw new IndexOutOfBoundsException("Record " + index + " of " + file.count);
+            }
+            return file.decode(index, decoder);
+        }
+
+        @Override
+        public int size() {
+            return file.count;
+        }
+    }
+}
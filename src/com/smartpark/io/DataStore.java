@@ -16,32 +16,67 @@ import com.smartpark.users.Customer;
 import com.smartpark.users.User;
 
 import java.io.*;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Scanner;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * REQUIREMENT #8: File handling and Scanner input.
  * Manages file I/O operations for data persistence.
+ *
+ * In journaled mode every change is appended to journal.log as a typed record
+ * (U|, B| or P| followed by the usual snapshot line) instead of rewriting whole
+ * files. Loading replays the journal tail over the snapshot files, and
+ * {@link #compact} folds the journal back into fresh snapshots.
  */
 public class DataStore {
+    private static final char USER_RECORD = 'U';
+    private static final char BOOKING_RECORD = 'B';
+    private static final char PAYMENT_RECORD = 'P';
+    public static final int DEFAULT_COMPACTION_THRESHOLD = 10_000;
+    private static final int READ_BUFFER_SIZE = 1 << 16;
+
     private String dataDir;
     private String usersFile;
     private String bookingsFile;
     private String paymentsFile;
     private String logsFile;
+    private String journalFile;
+
+    private boolean journaled;
+    private BufferedWriter journalWriter;  // kept open between appends
+    private EventLogWriter eventLogWriter;  // started on first logEvent()
+    private int journalRecords;
+    private int compactionThreshold;
 
     public DataStore(String dataDir) {
+        this(dataDir, false);
+    }
+
+    // REQUIREMENT #10: Constructor overloading - journaled persistence mode
+    public DataStore(String dataDir, boolean journaled) {
         this.dataDir = dataDir;
         this.usersFile = dataDir + File.separator + "users.txt";
         this.bookingsFile = dataDir + File.separator + "bookings.txt";
         this.paymentsFile = dataDir + File.separator + "payments.txt";
         this.logsFile = dataDir + File.separator + "system_logs.txt";
+        this.journalFile = dataDir + File.separator + "journal.log";
+        this.journaled = journaled;
+        this.compactionThreshold = DEFAULT_COMPACTION_THRESHOLD;
 
         // Create data directory and files if they don't exist
         initializeDataDirectory();
@@ -74,186 +109,459 @@ public class DataStore {
 
     // REQUIREMENT #8: File handling - save users to file
     public void saveUsers(List<User> users) {
-        try (FileWriter fw = new FileWriter(usersFile, false);
-             BufferedWriter bw = new BufferedWriter(fw)) {
-
-            for (User user : users) {
-                String line = String.format("%s|%s|%s|%s|%s",
-                        user.getRole(),
-                        user.getUserId(),
-                        user.getUsername(),
-                        user.getPassword(),
-                        user.getFullName());
-
-                if (user instanceof Customer) {
-                    Customer cust = (Customer) user;
-                    line += "|" + cust.getVehicleNumber() + "|" + cust.getVehicleType();
-                }
-
-                bw.write(line);
-                bw.newLine();
-            }
+        try {
+            writeSnapshot(usersFile, users, this::formatUser);
             System.out.println("Users saved to file.");
         } catch (IOException e) {
             System.err.println("Error saving users: " + e.getMessage());
         }
     }
 
-    // REQUIREMENT #8: File handling - load users from file using Scanner
-    public List<User> loadUsers() {
-        List<User> users = new ArrayList<>();
-        try (Scanner scanner = new Scanner(new File(usersFile))) {
-            while (scanner.hasNextLine()) {
-                String line = scanner.nextLine().trim();
-                if (line.isEmpty()) continue;
-
-                String[] parts = line.split("\\|");
-                if (parts.length >= 5) {
-                    String role = parts[0];
-                    String userId = parts[1];
-                    String username = parts[2];
-                    String password = parts[3];
-                    String fullName = parts[4];
-
-                    User user = null;
-                    if ("ADMIN".equals(role)) {
-                        user = new Admin(userId, username, password, fullName);
-                    } else if ("ATTENDANT".equals(role)) {
-                        user = new Attendant(userId, username, password, fullName);
-                    } else if ("CUSTOMER".equals(role)) {
-                        String vehicleNumber = parts.length > 5 ? parts[5] : "";
-                        String vehicleType = parts.length > 6 ? parts[6] : "Car";
-                        user = new Customer(userId, username, password, fullName, vehicleNumber);
-                        if (user instanceof Customer) {
-                            ((Customer) user).setVehicleType(vehicleType);
-                        }
-                    }
-
-                    if (user != null) {
-                        users.add(user);
-                    }
-                }
+    // REQUIREMENT #8: File handling - stream users from file (snapshot, then journal tail)
+    public void forEachUser(Consumer<User> action) {
+        readRecords(usersFile, "Users file not found. Starting with empty user list.", fields -> {
+            User user = parseUser(fields);
+            if (user != null) {
+                action.accept(user);
             }
-        } catch (FileNotFoundException e) {
-            System.out.println("Users file not found. Starting with empty user list.");
+        });
+        if (journaled) {
+            replayJournal(USER_RECORD, fields -> {
+                User user = parseUser(fields);
+                if (user != null) {
+                    action.accept(user);
+                }
+            });
         }
-        return users;
+    }
+
+    // REQUIREMENT #8: File handling - load users from file (later records replace earlier ones)
+    public List<User> loadUsers() {
+        Map<String, User> users = new LinkedHashMap<>();
+        forEachUser(user -> users.put(user.getUserId(), user));
+        return new ArrayList<>(users.values());
     }
 
     // REQUIREMENT #8: File handling - save bookings to file
     public void saveBookings(List<Booking> bookings) {
-        try (FileWriter fw = new FileWriter(bookingsFile, false);
-             BufferedWriter bw = new BufferedWriter(fw)) {
-
-            for (Booking booking : bookings) {
-                String line = String.format("%s|%s|%d|%s|%s|%s",
-                        booking.getBookingId(),
-                        booking.getCustomerId(),
-                        booking.getSlotNumber(),
-                        booking.getVehicleNumber(),
-                        booking.getCheckInTime(),
-                        booking.getStatus());
-
-                bw.write(line);
-                bw.newLine();
-            }
+        try {
+            writeSnapshot(bookingsFile, bookings, this::formatBooking);
             System.out.println("Bookings saved to file.");
         } catch (IOException e) {
             System.err.println("Error saving bookings: " + e.getMessage());
         }
     }
 
-    // REQUIREMENT #8: File handling - load bookings using Scanner
-    public List<Booking> loadBookings() {
-        List<Booking> bookings = new ArrayList<>();
-        try (Scanner scanner = new Scanner(new File(bookingsFile))) {
-            while (scanner.hasNextLine()) {
-                String line = scanner.nextLine().trim();
-                if (line.isEmpty()) continue;
-
-                String[] parts = line.split("\\|");
-                if (parts.length >= 5) {
-                    String bookingId = parts[0];
-                    String customerId = parts[1];
-                    int slotNumber = Integer.parseInt(parts[2]);
-                    String vehicleNumber = parts[3];
-
-                    Booking booking = new Booking(bookingId, customerId, slotNumber, vehicleNumber);
-                    booking.setStatus(parts[5]);
-                    bookings.add(booking);
-                }
+    // REQUIREMENT #8: File handling - stream bookings from file (snapshot, then journal tail).
+    // A booking may be reported more than once; the last record for an ID is current.
+    public void forEachBooking(Consumer<Booking> action) {
+        readRecords(bookingsFile, "Bookings file not found. Starting with empty bookings list.", fields -> {
+            Booking booking = parseBooking(fields);
+            if (booking != null) {
+                action.accept(booking);
             }
-        } catch (FileNotFoundException e) {
-            System.out.println("Bookings file not found. Starting with empty bookings list.");
+        });
+        forEachJournaledBooking(action);
+    }
+
+    // Journal tail only, for callers that keep the bookings snapshot elsewhere (BinaryStore)
+    public void forEachJournaledBooking(Consumer<Booking> action) {
+        if (journaled) {
+            replayJournal(BOOKING_RECORD, fields -> {
+                Booking booking = parseBooking(fields);
+                if (booking != null) {
+                    action.accept(booking);
+                }
+            });
         }
-        return bookings;
+    }
+
+    // REQUIREMENT #8: File handling - load bookings (later records replace earlier ones)
+    public List<Booking> loadBookings() {
+        Map<String, Booking> bookings = new LinkedHashMap<>();
+        forEachBooking(booking -> bookings.put(booking.getBookingId(), booking));
+        return new ArrayList<>(bookings.values());
     }
 
     // REQUIREMENT #8: File handling - save payments to file
     public void savePayments(List<Payment> payments) {
-        try (FileWriter fw = new FileWriter(paymentsFile, false);
-             BufferedWriter bw = new BufferedWriter(fw)) {
-
-            for (Payment payment : payments) {
-                String line = String.format("%s|%s|%d|%.2f|%s",
-                        payment.getPaymentId(),
-                        payment.getBookingId(),
-                        payment.getParkingHours(),
-                        payment.getAmount(),
-                        payment.getPaymentStatus());
-
-                bw.write(line);
-                bw.newLine();
-            }
+        try {
+            writeSnapshot(paymentsFile, payments, this::formatPayment);
             System.out.println("Payments saved to file.");
         } catch (IOException e) {
             System.err.println("Error saving payments: " + e.getMessage());
         }
     }
 
-    // REQUIREMENT #8: File handling - load payments using Scanner
+    // REQUIREMENT #8: File handling - stream payments from file (snapshot, then journal tail).
+    // A payment may be reported more than once; the last record for an ID is current.
+    public void forEachPayment(Consumer<Payment> action) {
+        readRecords(paymentsFile, "Payments file not found. Starting with empty payments list.", fields -> {
+            Payment payment = parsePayment(fields);
+            if (payment != null) {
+                action.accept(payment);
+            }
+        });
+        forEachJournaledPayment(action);
+    }
+
+    // Journal tail only, for callers that keep the payments snapshot elsewhere (BinaryStore)
+    public void forEachJournaledPayment(Consumer<Payment> action) {
+        if (journaled) {
+            replayJournal(PAYMENT_RECORD, fields -> {
+                Payment payment = parsePayment(fields);
+                if (payment != null) {
+                    action.accept(payment);
+                }
+            });
+        }
+    }
+
+    // REQUIREMENT #8: File handling - load payments (later records replace earlier ones)
     public List<Payment> loadPayments() {
-        List<Payment> payments = new ArrayList<>();
-        try (Scanner scanner = new Scanner(new File(paymentsFile))) {
-            while (scanner.hasNextLine()) {
-                String line = scanner.nextLine().trim();
-                if (line.isEmpty()) continue;
-
-                String[] parts = line.split("\\|");
-                if (parts.length >= 5) {
-                    String paymentId = parts[0];
-                    String bookingId = parts[1];
-                    Integer parkingHours = Integer.parseInt(parts[2]);
-
-                    Payment payment = new Payment(paymentId, bookingId, parkingHours);
-                    payment.setPaymentStatus(parts[4]);
-                    payments.add(payment);
+        Map<String, Payment> payments = new LinkedHashMap<>();
+        forEachPayment(payment -> payments.put(payment.getPaymentId(), payment));
+        return new ArrayList<>(payments.values());
+    }
+
+    // Journal: append one record per change instead of rewriting whole files
+
+    public void appendUser(User user) {
+        appendRecord(USER_RECORD, formatUser(user));
+    }
+
+    public void appendBooking(Booking booking) {
+        appendRecord(BOOKING_RECORD, formatBooking(booking));
+    }
+
+    public void appendPayment(Payment payment) {
+        appendRecord(PAYMENT_RECORD, formatPayment(payment));
+    }
+
+    /**
+     * Append many payments as one batch: one lock and one flush for the lot. A crash
+     * part way leaves a prefix of the batch in the journal. Returns false if the
+     * journal could not be written, so the caller can stop before treating the batch
+     * as recorded.
+     */
+    public synchronized boolean appendPayments(Collection<Payment> payments) {
+        if (!journaled) {
+            throw new IllegalStateException("DataStore was not opened in journaled mode");
+        }
+        try {
+            if (journalWriter == null) {
+                journalWriter = new BufferedWriter(new FileWriter(journalFile, true));
+            }
+            for (Payment payment : payments) {
+                journalWriter.write(PAYMENT_RECORD);
+                journalWriter.write('|');
+                journalWriter.write(formatPayment(payment));
+                journalWriter.newLine();
+            }
+            journalWriter.flush();
+            journalRecords += payments.size();
+        } catch (IOException e) {
+            System.err.println("Error writing journal: " + e.getMessage());
+            return false;
+        }
+        if (compactionThreshold > 0 && journalRecords >= compactionThreshold) {
+            compact();
+        }
+        return true;
+    }
+
+    private synchronized void appendRecord(char type, String line) {
+        if (!journaled) {
+            throw new IllegalStateException("DataStore was not opened in journaled mode");
+        }
+        try {
+            if (journalWriter == null) {
+                journalWriter = new BufferedWriter(new FileWriter(journalFile, true));
+            }
+            journalWriter.write(type);
+            journalWriter.write('|');
+            journalWriter.write(line);
+            journalWriter.newLine();
+            journalWriter.flush();
+            journalRecords++;
+        } catch (IOException e) {
+            System.err.println("Error writing journal: " + e.getMessage());
+            return;
+        }
+        if (compactionThreshold > 0 && journalRecords >= compactionThreshold) {
+            compact();
+        }
+    }
+
+    /**
+     * Fold the journal into fresh snapshot files and truncate it, using the state
+     * on disk (snapshot + journal tail).
+     */
+    public synchronized void compact() {
+        compact(loadUsers(), loadBookings(), loadPayments());
+    }
+
+    /**
+     * Write the given in-memory state as the new snapshot and truncate the journal.
+     * Each snapshot is written to a temporary file and atomically renamed, so a crash
+     * leaves either the old or the new snapshot; the journal is only truncated once
+     * all three are in place, and replaying it again over a new snapshot is harmless.
+     * A null list leaves that snapshot alone, for bookings and payments that were
+     * already saved to a BinaryStore.
+     */
+    public synchronized void compact(List<User> users, List<Booking> bookings, List<Payment> payments) {
+        try {
+            writeSnapshot(usersFile, users, this::formatUser);
+            if (bookings != null) {
+                writeSnapshot(bookingsFile, bookings, this::formatBooking);
+            }
+            if (payments != null) {
+                writeSnapshot(paymentsFile, payments, this::formatPayment);
+            }
+
+            if (journalWriter != null) {
+                journalWriter.close();
+                journalWriter = null;
+            }
+            new FileWriter(journalFile, false).close();
+            journalRecords = 0;
+        } catch (IOException e) {
+            System.err.println("Error compacting journal: " + e.getMessage());
+        }
+    }
+
+    public synchronized void close() {
+        closeEventLog();
+        if (journalWriter != null) {
+            try {
+                journalWriter.close();
+            } catch (IOException e) {
+                System.err.println("Error closing journal: " + e.getMessage());
+            }
+            journalWriter = null;
+        }
+    }
+
+    // Streams each non-blank line of a record file through a reused tokenizer
+    private void readRecords(String file, String missingMessage, Consumer<DelimitedLine> action) {
+        Path path = Paths.get(file);
+        if (!Files.exists(path)) {
+            System.out.println(missingMessage);
+            return;
+        }
+        DelimitedLine fields = new DelimitedLine();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(Files.newInputStream(path), StandardCharsets.UTF_8), READ_BUFFER_SIZE)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (isBlank(line)) continue;
+
+                try {
+                    fields.split(line.trim(), 0);
+                    action.accept(fields);
+                } catch (RuntimeException e) {
+                    System.err.println("Skipping malformed record in " + file + ": " + line);
                 }
             }
-        } catch (FileNotFoundException e) {
-            System.out.println("Payments file not found. Starting with empty payments list.");
+        } catch (IOException e) {
+            System.err.println("Error reading " + file + ": " + e.getMessage());
         }
-        return payments;
     }
 
-    // REQUIREMENT #8: File handling - log event to file
-    public void logEvent(String event) {
-        try (FileWriter fw = new FileWriter(logsFile, true);
-             BufferedWriter bw = new BufferedWriter(fw)) {
+    private void replayJournal(char type, Consumer<DelimitedLine> apply) {
+        Path path = Paths.get(journalFile);
+        if (!Files.exists(path)) {
+            return;  // No journal yet
+        }
+        DelimitedLine fields = new DelimitedLine();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(Files.newInputStream(path), StandardCharsets.UTF_8), READ_BUFFER_SIZE)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                // A torn last line from a crash is skipped
+                if (line.length() < 2 || line.charAt(0) != type || line.charAt(1) != '|') continue;
+
+                try {
+                    fields.split(line, 2);
+                    apply.accept(fields);
+                } catch (RuntimeException e) {
+                    System.err.println("Skipping malformed journal record: " + line);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading journal: " + e.getMessage());
+        }
+    }
+
+    private static boolean isBlank(String line) {
+        for (int i = 0; i < line.length(); i++) {
+            if (line.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private <T> void writeSnapshot(String file, List<T> records, Function<T, String> format) throws IOException {
+        Path target = Paths.get(file);
+        Path temp = Paths.get(file + ".tmp");
+        try (BufferedWriter bw = Files.newBufferedWriter(temp)) {
+            for (T record : records) {
+                bw.write(format.apply(record));
+                bw.newLine();
+            }
+        }
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    // Record formats shared by the snapshot files and the journal; Locale.ROOT keeps numbers
+    // in the form the parsers read back (a "1234,50" amount would not parse)
+
+    private String formatUser(User user) {
+        String line = String.format(Locale.ROOT, "%s|%s|%s|%s|%s",
+                user.getRole(),
+                user.getUserId(),
+                user.getUsername(),
+                user.getPassword(),
+                user.getFullName());
 
-            String timestamp = java.time.LocalDateTime.now()
-                    .format(java.time.format.DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
-            String logEntry = "[" + timestamp + "] " + event;
+        if (user instanceof Customer) {
+            Customer cust = (Customer) user;
+            line += "|" + cust.getVehicleNumber() + "|" + cust.getVehicleType();
+        }
+        return line;
+    }
+
+    private User parseUser(DelimitedLine fields) {
+        if (fields.size() < 5) {
+            return null;
+        }
+        String role = fields.field(0);
+        String userId = fields.field(1);
+        String username = fields.field(2);
+        String password = fields.field(3);
+        String fullName = fields.field(4);
+
+        User user = null;
+        if ("ADMIN".equals(role)) {
+            user = new Admin(userId, username, password, fullName);
+        } else if ("ATTENDANT".equals(role)) {
+            user = new Attendant(userId, username, password, fullName);
+        } else if ("CUSTOMER".equals(role)) {
+            String vehicleNumber = fields.field(5, "");
+            String vehicleType = fields.field(6, "Car");
+            Customer customer = new Customer(userId, username, password, fullName, vehicleNumber);
+            customer.setVehicleType(vehicleType);
+            user = customer;
+        }
+        return user;
+    }
+
+    // A booking still awaiting its vehicle gets a trailing "P" (pending arrival); older lines
+    // without the field load as arrived
+    private String formatBooking(Booking booking) {
+        return String.format(Locale.ROOT, "%s|%s|%d|%s|%s|%s|%s%s",
+                booking.getBookingId(),
+                booking.getCustomerId(),
+                booking.getSlotNumber(),
+                booking.getVehicleNumber(),
+                booking.getCheckInTime(),
+                booking.getStatus().getCode(),
+                booking.getCheckOutTime(),
+                booking.isAwaitingArrival() ? "|P" : "");
+    }
+
+    private Booking parseBooking(DelimitedLine fields) {
+        if (fields.size() < 6) {
+            return null;
+        }
+        String bookingId = fields.field(0);
+        String customerId = fields.field(1);
+        int slotNumber = fields.intField(2);
+        String vehicleNumber = fields.field(3);
+        LocalDateTime checkInTime = fields.timeField(4);
+        LocalDateTime checkOutTime = fields.timeField(6);
+
+        Booking booking = new Booking(bookingId, customerId, slotNumber, vehicleNumber,
+                checkInTime != null ? checkInTime : LocalDateTime.now(), checkOutTime, fields.field(5));
+        booking.setAwaitingArrival(fields.size() > 7 && "P".equals(fields.field(7)));
+        return booking;
+    }
+
+    private String formatPayment(Payment payment) {
+        return String.format(Locale.ROOT, "%s|%s|%d|%.2f|%s",
+                payment.getPaymentId(),
+                payment.getBookingId(),
+                payment.getParkingHours(),
+                payment.getAmount(),
+                payment.getPaymentStatus().getCode());
+    }
+
+    private Payment parsePayment(DelimitedLine fields) {
+        if (fields.size() < 5) {
+            return null;
+        }
+        String paymentId = fields.field(0);
+        String bookingId = fields.field(1);
+        Integer parkingHours = fields.intField(2);
+
+        Payment payment = new Payment(paymentId, bookingId, parkingHours);
+        payment.setAmount(Double.parseDouble(fields.field(3)));  // tariff-priced amounts do not follow the hours
+        payment.setPaymentStatus(fields.field(4));
+        return payment;
+    }
+
+    // REQUIREMENT #8: File handling - log event to file (queued, written in batches)
+    public void logEvent(String event) {
+        EventLogWriter writer = eventLog();
+        if (writer != null) {
+            writer.submit(event);
+        }
+    }
 
-            bw.write(logEntry);
-            bw.newLine();
+    /**
+     * Replace the event log writer settings. Events already queued are written first.
+     */
+    public synchronized void configureEventLog(EventLogWriter.Durability durability, int queueCapacity,
+                                               int batchSize, long maxDelayMillis) {
+        closeEventLog();
+        try {
+            eventLogWriter = new EventLogWriter(logsFile, durability, queueCapacity, batchSize, maxDelayMillis);
         } catch (IOException e) {
-            System.err.println("Error writing log: " + e.getMessage());
+            System.err.println("Error opening log: " + e.getMessage());
+        }
+    }
+
+    private synchronized EventLogWriter eventLog() {
+        if (eventLogWriter == null) {
+            try {
+                eventLogWriter = new EventLogWriter(logsFile);
+            } catch (IOException e) {
+                System.err.println("Error opening log: " + e.getMessage());
+            }
+        }
+        return eventLogWriter;
+    }
+
+    private synchronized void closeEventLog() {
+        if (eventLogWriter != null) {
+            eventLogWriter.close();
+            eventLogWriter = null;
         }
     }
 
     // REQUIREMENT #8: File handling - read logs from file using Scanner
     public String readLogs() {
+        synchronized (this) {
+            if (eventLogWriter != null) {
+                eventLogWriter.sync();  // make queued events visible in the file
+            }
+        }
         StringBuilder logs = new StringBuilder();
         try (Scanner scanner = new Scanner(new File(logsFile))) {
             while (scanner.hasNextLine()) {
@@ -280,4 +588,17 @@ public class DataStore {
     public String getLogsFile() {
         return logsFile;
     }
+
+    public String getJournalFile() {
+        return journalFile;
+    }
+
+    public boolean isJournaled() {
+        return journaled;
+    }
+
+    // Journal records after which an append triggers compact(); 0 disables it
+    public void setCompactionThreshold(int compactionThreshold) {
+        this.compactionThreshold = compactionThreshold;
+    }
 }
@@ -0,0 +1,134 @@
+/*
+ * File: DelimitedLine.java
+ * Package: com.smartpark.io
+ * Purpose: Reusable pipe-delimited field tokenizer for the text record loaders
+ */
+
+package com.smartpark.io;
+
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+
+/**
+ * Splits one pipe-delimited line into fields by recording field boundaries, without
+ * regex or intermediate arrays. A single instance is reused for every line of a file;
+ * only the fields that are actually read are turned into Strings.
+ */
+final class DelimitedLine {
+    private static final char DELIMITER = '|';
+
+    private String line;
+    private int[] starts = new int[8];
+    private int[] ends = new int[8];
+    private int count;
+
+    /**
+     * Tokenize {@code line} starting at {@code from}.
+     * @return number of fields
+     */
+    int split(String line, int from) {
+        this.line = line;
+        count = 0;
+        int start = from;
+        int length = line.length();
+        while (true) {
+            int end = line.indexOf(DELIMITER, start);
+            if (end < 0) {
+                end = length;
+            }
+            if (count == starts.length) {
+                starts = Arrays.copyOf(starts, count * 2);
+                ends = Arrays.copyOf(ends, count * 2);
+            }
+            starts[count] = start;
+            ends[count] = end;
+            count++;
+            if (end == length) {
+                return count;
+            }
+            start = end + 1;
+        }
+    }
+
+    int size() {
+        return count;
+    }
+
+    String field(int i) {
+        return line.substring(starts[i], ends[i]);
+    }
+
+    String field(int i, String defaultValue) {
+        return i < count ? field(i) : defaultValue;
+    }
+
+    int intField(int i) {
+        return Integer.parseInt(line, starts[i], ends[i], 10);
+    }
+
+    /**
+     * Parse an ISO local date-time field (as written by LocalDateTime.toString()).
+     * The common "yyyy-MM-ddTHH:mm[:ss[.fraction]]" shape is decoded by hand;
+     * anything else goes through LocalDateTime.parse. "null" or empty gives null.
+     */
+    LocalDateTime timeField(int i) {
+        if (i >= count) {
+            return null;
+        }
+        int s = starts[i];
+        int e = ends[i];
+        int n = e - s;
+        if (n == 0 || (n == 4 && line.startsWith("null", s))) {
+            return null;
+        }
+        if (n >= 16 && line.charAt(s + 4) == '-' && line.charAt(s + 7) == '-' && line.charAt(s + 10) == 'T'
+                && line.charAt(s + 13) == ':') {
+            int year = digits(s, 4);
+            int month = digits(s + 5, 2);
+            int day = digits(s + 8, 2);
+            int hour = digits(s + 11, 2);
+            int minute = digits(s + 14, 2);
+            int second = 0;
+            int nanos = 0;
+            boolean ok = year >= 0 && month >= 0 && day >= 0 && hour >= 0 && minute >= 0;
+            if (ok && n > 16) {
+                ok = n >= 19 && line.charAt(s + 16) == ':' && (second = digits(s + 17, 2)) >= 0;
+                if (ok && n > 19) {
+                    int fraction = n - 20;
+                    ok = line.charAt(s + 19) == '.' && fraction >= 1 && fraction <= 9
+                            && (nanos = digits(s + 20, fraction)) >= 0;
+                    for (int k = fraction; ok && k < 9; k++) {
+                        nanos *= 10;
+                    }
+                }
+            }
+            if (ok) {
+                try {
+                    return LocalDateTime.of(year, month, day, hour, minute, second, nanos);
+                } catch (DateTimeException ex) {
+                    return null;
+                }
+            }
+        }
+        try {
+            return LocalDateTime.parse(line.substring(s, e));
+        } catch (DateTimeParseException ex) {
+            return null;
+        }
+    }
+
+    // Decimal value of 'length' digits at 'from', or -1 if any is not a digit
+    private int digits(int from, int length) {
+        int value = 0;
+        for (int k = from; k < from + length; k++) {
+            int d = line.charAt(k) - '0';
+            if (d < 0 || d > 9) {
+                return -1;
+            }
+            value = value * 10 + d;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * File: EventLogWriter.java
+ * Package: com.smartpark.io
+ * Purpose: Asynchronous, batching writer for the system event log file
+ * Requirements: #8 (File handling)
+ */
+
+package com.smartpark.io;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the log file open and writes events from a single background thread.
+ * Any thread may {@link #submit} an event; it is queued with its timestamp and
+ * written as part of a batch once batchSize events are pending or maxDelayMillis
+ * has passed since the first one. The queue is bounded: when it is full, submit()
+ * blocks until the writer catches up.
+ */
+public class EventLogWriter implements AutoCloseable {
+    /** What happens at the end of each batch. */
+    public enum Durability {
+        FLUSH,  // hand the batch to the OS
+        FSYNC   // also force it to the storage device
+    }
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 8192;
+    public static final int DEFAULT_BATCH_SIZE = 256;
+    public static final long DEFAULT_MAX_DELAY_MILLIS = 50;
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final BlockingQueue<Event> queue;
+    private final int batchSize;
+    private final long maxDelayNanos;
+    private final Durability durability;
+    private final FileOutputStream out;
+    private final BufferedWriter writer;
+    private final Thread thread;
+    private volatile boolean closed;
+
+    // Timestamp cache: consecutive events in the same second share one formatted string
+    private long cachedSecond = Long.MIN_VALUE;
+    private String cachedTimestamp;
+
+    private static final class Event {
+        final long timeMillis;
+        final String message;
+        final CountDownLatch flushed;  // non-null for sync() markers and the close marker
+        final boolean last;            // the close marker
+
+        Event(long timeMillis, String message, CountDownLatch flushed, boolean last) {
+            this.timeMillis = timeMillis;
+            this.message = message;
+            this.flushed = flushed;
+            this.last = last;
+        }
+    }
+
+    public EventLogWriter(String file) throws IOException {
+        this(file, Durability.FLUSH, DEFAULT_QUEUE_CAPACITY, DEFAULT_BATCH_SIZE, DEFAULT_MAX_DELAY_MILLIS);
+    }
+
+    public EventLogWriter(String file, Durability durability, int queueCapacity, int batchSize,
+                          long maxDelayMillis) throws IOException {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+        this.durability = durability;
+        this.out = new FileOutputStream(file, true);
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16);
+        this.thread = new Thread(this::run, "event-log-writer");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Queue an event for writing. Blocks while the queue is full.
+     */
+    public void submit(String event) {
+        if (closed) {
+            throw new IllegalStateException("Event log writer is closed");
+        }
+        enqueue(new Event(System.currentTimeMillis(), event, null, false));
+    }
+
+    /**
+     * Wait until everything submitted so far has been written (and synced, if FSYNC).
+     */
+    public void sync() {
+        if (closed) {
+            return;
+        }
+        CountDownLatch done = new CountDownLatch(1);
+        enqueue(new Event(0, null, done, false));
+        await(done);
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        CountDownLatch done = new CountDownLatch(1);
+        enqueue(new Event(0, null, done, true));
+        await(done);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public Durability getDurability() {
+        return durability;
+    }
+
+    private void enqueue(Event event) {
+        try {
+            queue.put(event);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        List<Event> batch = new ArrayList<>(batchSize);
+        boolean running = true;
+        while (running) {
+            try {
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < batchSize && batch.get(batch.size() - 1).flushed == null) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    if (batch.size() >= batchSize || batch.get(batch.size() - 1).flushed != null) {
+                        break;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    Event next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // Write whatever we have, then keep going until the close marker arrives
+            }
+
+            running = writeBatch(batch);
+            batch.clear();
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            System.err.println("Error closing event log: " + e.getMessage());
+        }
+    }
+
+    // Returns false once the close marker has been written
+    private boolean writeBatch(List<Event> batch) {
+        boolean keepRunning = true;
+        try {
+            for (Event event : batch) {
+                if (event.message != null) {
+                    writer.write('[');
+                    writer.write(timestamp(event.timeMillis));
+                    writer.write("] ");
+                    writer.write(event.message);
+                    writer.newLine();
+                }
+            }
+            writer.flush();
+            if (durability == Durability.FSYNC) {
+                out.getChannel().force(false);
+            }
+        } catch (IOException e) {
+            System.err.println("Error writing log: " + e.getMessage());
+        }
+        for (Event event : batch) {
+            if (event.flushed != null) {
+                keepRunning &= !event.last;
+                event.flushed.countDown();
+            }
+        }
+        return keepRunning;
+    }
+
+    private String timestamp(long timeMillis) {
+        long second = Math.floorDiv(timeMillis, 1000);
+        if (second != cachedSecond) {
+            cachedSecond = second;
+            cachedTimestamp = LocalDateTime.ofInstant(Instant.ofEpochMilli(timeMillis), ZoneId.systemDefault())
+                    .format(FORMATTER);
+        }
+        return cachedTimestamp;
+    }
+}
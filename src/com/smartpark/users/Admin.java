@@ -38,7 +38,9 @@ public class Admin extends User {
                 "2. View Reports\n" +
                 "3. View System Logs\n" +
                 "4. Manage Users\n" +
-                "5. Logout\n";
+                "5. Booking History\n" +
+                "6. Run Batch Billing\n" +
+                "7. Logout\n";
     }
 
     @Override
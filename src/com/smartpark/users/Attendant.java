@@ -41,7 +41,9 @@ public class Attendant extends User {
                 "1. Check-in Vehicle\n" +
                 "2. Check-out Vehicle\n" +
                 "3. View Slot Status\n" +
-                "4. Logout\n";
+                "4. Check-out on Account\n" +
+                "5. Confirm Arrival\n" +
+                "6. Logout\n";
     }
 
     @Override
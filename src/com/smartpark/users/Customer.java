@@ -43,7 +43,9 @@ public class Customer extends User {
                 "2. View My Bookings\n" +
                 "3. Cancel Booking\n" +
                 "4. View Invoice\n" +
-                "5. Logout\n";
+                "5. Reserve for Later\n" +
+                "6. Check In for Reservation\n" +
+                "7. Logout\n";
     }
 
     @Override
@@ -0,0 +1,87 @@
+/*
+ * File: UserDirectory.java
+ * Package: com.smartpark.users
+ * Purpose: Indexed directory of users for login and registration
+ * Requirements: #4 (Works with the User hierarchy polymorphically)
+ */
+
+package com.smartpark.users;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps all users indexed by username and by user ID, so authentication and
+ * duplicate-username checks are O(1) however many customers are registered.
+ */
+public class UserDirectory {
+    private final List<User> users;  // registration order, used for persistence
+    private final Map<String, User> usersByUsername;
+    private final Map<String, User> usersById;
+
+    public UserDirectory() {
+        this.users = new ArrayList<>();
+        this.usersByUsername = new HashMap<>();
+        this.usersById = new HashMap<>();
+    }
+
+    public UserDirectory(List<User> users) {
+        this();
+        for (User user : users) {
+            register(user);
+        }
+    }
+
+    /**
+     * Add a user to the directory.
+     * @param user User to add
+     * @return false if the username is already taken
+     */
+    public synchronized boolean register(User user) {
+        if (usersByUsername.containsKey(user.getUsername())) {
+            return false;
+        }
+        users.add(user);
+        usersByUsername.put(user.getUsername(), user);
+        usersById.put(user.getUserId(), user);
+        return true;
+    }
+
+    /**
+     * Look up a user by username and check the password.
+     * @return the matching user, or null if the credentials are invalid
+     */
+    public synchronized User authenticate(String username, String password) {
+        User user = usersByUsername.get(username);
+        if (user != null && user.authenticate(password)) {
+            return user;
+        }
+        return null;
+    }
+
+    public synchronized boolean isUsernameTaken(String username) {
+        return usersByUsername.containsKey(username);
+    }
+
+    public synchronized User findByUsername(String username) {
+        return usersByUsername.get(username);
+    }
+
+    public synchronized User findById(String userId) {
+        return usersById.get(userId);
+    }
+
+    public synchronized List<User> getAllUsers() {
+        return new ArrayList<>(users);
+    }
+
+    public synchronized int size() {
+        return users.size();
+    }
+
+    public synchronized boolean isEmpty() {
+        return users.isEmpty();
+    }
+}
@@ -7,6 +7,8 @@
 
 package com.smartpark.utils;
 
+import java.time.LocalDateTime;
+
 /**
  * REQUIREMENT #3: Interface for billing operations.
  * Demonstrates interface usage for defining billing behavior.
@@ -19,6 +21,14 @@ public interface Billing {
      */
     double calculateFare(int hours);
 
+    /**
+     * Calculate total fare for a stay, to the minute.
+     * @param checkIn Start of the stay
+     * @param checkOut End of the stay
+     * @return Total fare amount
+     */
+    double calculateFare(LocalDateTime checkIn, LocalDateTime checkOut);
+
     /**
      * Generate receipt for payment.
      * @return Receipt string
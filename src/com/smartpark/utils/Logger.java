@@ -7,56 +7,187 @@
 
 package com.smartpark.utils;
 
+import java.lang.invoke.VarHandle;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
 
 /**
  * REQUIREMENT #3: Implements Loggable interface.
  * REQUIREMENT #11: Varargs overloading - multiple methods with variable-length arguments.
+ *
+ * Entries below the minimum level are dropped before any string is built. Accepted
+ * entries go into a fixed-size ring buffer shared lock-free by all threads: each
+ * writer claims a sequence number, takes its cell by compare-and-set on the cell's
+ * sequence (writers capacity apart share a cell, and only one may write it at a
+ * time), stores the epoch-millis timestamp, level, context and raw message, then
+ * publishes the sequence. A writer that finds a newer entry already in its cell
+ * drops its own, as the ring would have overwritten it anyway. Readers check the cell's sequence before and after copying the fields,
+ * seqlock-style, so an entry overwritten while it is read is skipped rather than
+ * returned half old, half new. Prefixes and timestamps are only formatted when the
+ * logs are read; once the ring is full the oldest entries are overwritten.
  */
 public class Logger implements Loggable {
-    private List<String> logs;
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    private final LogLevel minLevel;
+    private final int mask;
+    private final long[] times;
+    private final LogLevel[] levels;   // null for plain log() entries (no level prefix)
+    private final String[] contexts;   // null unless written by logWithContext()
+    private final String[] messages;
+    private final AtomicLongArray published;  // sequence of each cell's entry, -1 if none, writing(seq) while written
+    private final AtomicLong nextSequence;
+    private volatile long clearedBefore;      // entries with a lower sequence were cleared
     private DateTimeFormatter formatter;
 
     public Logger() {
-        this.logs = new ArrayList<>();
+        this(LogLevel.INFO, DEFAULT_CAPACITY);
+    }
+
+    // REQUIREMENT #10: Constructor overloading - minimum level and ring capacity
+    public Logger(LogLevel minLevel, int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;  // next power of two
+        this.minLevel = minLevel;
+        this.mask = size - 1;
+        this.times = new long[size];
+        this.levels = new LogLevel[size];
+        this.contexts = new String[size];
+        this.messages = new String[size];
+        this.published = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            published.set(i, -1);
+        }
+        this.nextSequence = new AtomicLong();
         this.formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
     }
 
+    public boolean isEnabled(LogLevel level) {
+        return level.severity >= minLevel.severity;
+    }
+
     @Override
     public void log(String event) {
-        String timestamp = LocalDateTime.now().format(formatter);
-        String logEntry = "[" + timestamp + "] " + event;
-        logs.add(logEntry);
+        if (isEnabled(LogLevel.INFO)) {
+            append(null, null, event);
+        }
+    }
+
+    // Lazy variant of log(String): the event is only built if INFO is enabled
+    public void log(Supplier<String> event) {
+        if (isEnabled(LogLevel.INFO)) {
+            append(null, null, event.get());
+        }
+    }
+
+    // Lazy variant: the message is only built if the level is enabled
+    public void log(LogLevel level, Supplier<String> message) {
+        if (isEnabled(level)) {
+            append(level, null, message.get());
+        }
     }
 
     // REQUIREMENT #11: Varargs overloading (Case 1 - multiple string arguments)
     public void logMultiple(String... events) {
+        if (!isEnabled(LogLevel.INFO)) {
+            return;
+        }
         for (String event : events) {
-            log(event);
+            append(null, null, event);
         }
     }
 
     // REQUIREMENT #11: Varargs overloading (Case 2 - mixed types with varargs)
     public void logWithContext(String context, String... messages) {
+        if (!isEnabled(LogLevel.INFO)) {
+            return;
+        }
         for (String message : messages) {
-            log("[" + context + "] " + message);
+            append(null, context, message);
+        }
+    }
+
+    // Lazy varargs variant of logWithContext: suppliers are only invoked if INFO is enabled
+    @SafeVarargs
+    public final void logWithContext(String context, Supplier<String>... messages) {
+        if (!isEnabled(LogLevel.INFO)) {
+            return;
+        }
+        for (Supplier<String> message : messages) {
+            append(null, context, message.get());
         }
     }
 
     // REQUIREMENT #11: Varargs overloading (Case 3 - multiple event types)
     public void logEvents(LogLevel level, String... events) {
+        if (!isEnabled(level)) {
+            return;
+        }
         for (String event : events) {
-            log(level.name() + ": " + event);
+            append(level, null, event);
         }
     }
 
+    // Lazy varargs variant: suppliers are only invoked if the level is enabled
+    @SafeVarargs
+    public final void logEvents(LogLevel level, Supplier<String>... events) {
+        if (!isEnabled(level)) {
+            return;
+        }
+        for (Supplier<String> event : events) {
+            append(level, null, event.get());
+        }
+    }
+
+    private void append(LogLevel level, String context, String message) {
+        long sequence = nextSequence.getAndIncrement();
+        int cell = (int) (sequence & mask);
+        // Take the cell before touching its fields; the writing mark also makes a reader still
+        // copying the entry this one replaces see the sequence change and skip it
+        if (!claim(cell, sequence)) {
+            return;
+        }
+        VarHandle.storeStoreFence();
+        times[cell] = System.currentTimeMillis();
+        levels[cell] = level;
+        contexts[cell] = context;
+        messages[cell] = message;
+        published.set(cell, sequence);  // volatile write publishes the entry
+    }
+
+    // Takes the cell for sequence; false if a newer entry owns it. An older writer still in
+    // the cell is waited out, as it only has a few stores left to make.
+    private boolean claim(int cell, long sequence) {
+        while (true) {
+            long current = published.get(cell);
+            long owner = current < -1 ? writing(current) : current;
+            if (owner >= sequence) {
+                return false;
+            }
+            if (current < -1) {
+                Thread.yield();
+            } else if (published.compareAndSet(cell, current, writing(sequence))) {
+                return true;
+            }
+        }
+    }
+
+    // The mark a writer leaves in its cell, below -1 so it never matches a sequence or the
+    // empty value; applying it twice gives the sequence back
+    private static long writing(long value) {
+        return -2 - value;
+    }
+
     @Override
     public String getLogs() {
         StringBuilder sb = new StringBuilder();
-        for (String log : logs) {
+        for (String log : getAllLogs()) {
             sb.append(log).append("\n");
         }
         return sb.toString();
@@ -64,18 +195,66 @@ public class Logger implements Loggable {
 
     @Override
     public void clearLogs() {
-        logs.clear();
+        clearedBefore = nextSequence.get();
     }
 
     public int getLogCount() {
-        return logs.size();
+        long end = nextSequence.get();
+        return (int) (end - firstRetained(end));
     }
 
     public List<String> getAllLogs() {
-        return new ArrayList<>(logs);
+        long end = nextSequence.get();
+        long begin = firstRetained(end);
+        List<String> logs = new ArrayList<>((int) (end - begin));
+        ZoneId zone = ZoneId.systemDefault();
+        for (long sequence = begin; sequence < end; sequence++) {
+            int cell = (int) (sequence & mask);
+            if (published.get(cell) != sequence) {
+                continue;  // still being written, or already overwritten
+            }
+            long time = times[cell];
+            LogLevel level = levels[cell];
+            String context = contexts[cell];
+            String message = messages[cell];
+            VarHandle.loadLoadFence();  // the fields are read before the check below
+            if (published.get(cell) != sequence) {
+                continue;  // overwritten while being copied
+            }
+
+            StringBuilder entry = new StringBuilder(32 + message.length());
+            entry.append('[').append(LocalDateTime.ofInstant(Instant.ofEpochMilli(time), zone).format(formatter))
+                    .append("] ");
+            if (level != null) {
+                entry.append(level.name()).append(": ");
+            }
+            if (context != null) {
+                entry.append('[').append(context).append("] ");
+            }
+            logs.add(entry.append(message).toString());
+        }
+        return logs;
+    }
+
+    public LogLevel getMinLevel() {
+        return minLevel;
+    }
+
+    private long firstRetained(long end) {
+        return Math.max(clearedBefore, Math.max(0, end - times.length));
     }
 
     public enum LogLevel {
-        INFO, WARNING, ERROR, SUCCESS
+        INFO(0), WARNING(2), ERROR(3), SUCCESS(1);
+
+        private final int severity;
+
+        LogLevel(int severity) {
+            this.severity = severity;
+        }
+
+        public int getSeverity() {
+            return severity;
+        }
     }
 }